@@ -1,9 +1,12 @@
 package io.github.joaovitorleal.securecapita.config;
 
 import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.TimeZone;
@@ -12,8 +15,15 @@ import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class ApplicationConfig {
 
+    /*
+     * Mesma chave usada pelo Spring Boot para executar as requisições do Tomcat em virtual threads.
+     */
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
     @PostConstruct
     public void setDefaultTimeZone() {
         TimeZone.setDefault(TimeZone.getTimeZone("America/Sao_Paulo"));
@@ -21,6 +31,11 @@ public class ApplicationConfig {
 
     @Bean
     public Executor taskExecutor() {
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("AppAsync-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         int cores = Runtime.getRuntime().availableProcessors(); // Número de processadores
         executor.setCorePoolSize(cores);
@@ -34,6 +49,17 @@ public class ApplicationConfig {
 
     @Bean(name = "emailExecutor")
     public Executor emailExecutor() {
+        if (virtualThreadsEnabled) {
+            /*
+             * O SMTPTransport do Angus Mail usa métodos synchronized (connect, sendMessage), que fixam (pin) a virtual
+             * thread na carrier thread durante todo o I/O SMTP no Java 21. O limite de concorrência impede que os envios
+             * ocupem todas as carrier threads e travem as requisições do Tomcat.
+             */
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("EmailThread-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+            return executor;
+        }
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(10); // Mantém 10 threads sempre ativas
         executor.setMaxPoolSize(50); // Sobe até 50 threads caso a fila fique lotada
@@ -42,4 +68,66 @@ public class ApplicationConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Executor limitado dos envios de SMS feitos pelo dispatcher da outbox. Com a fila cheia, o AbortPolicy padrão
+     * rejeita o lote, que volta para a outbox com backoff em vez de acumular chamadas ao provedor.
+     */
+    @Bean(name = "smsExecutor")
+    public Executor smsExecutor(
+            @Value("${sms.executor.threads:4}") int threads,
+            @Value("${sms.executor.queue-capacity:100}") int queueCapacity
+    ) {
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("SmsThread-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(threads);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("SmsThread-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Thread única dos ciclos do dispatcher da outbox, que aguardam os envios de cada lote. Mantém essa espera fora do
+     * pool do agendador ({@code spring.task.scheduling.pool.size}).
+     */
+    @Bean(name = "outboxDispatchExecutor")
+    public Executor outboxDispatchExecutor() {
+        if (virtualThreadsEnabled) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("OutboxDispatch-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(1);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.setThreadNamePrefix("OutboxDispatch-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Pool dedicado ao hashing de senhas (BCrypt): uma thread por núcleo e fila limitada.
+     * Permanece em platform threads mesmo com virtual threads habilitadas, pois a carga é puramente de CPU.
+     * Sem política de rejeição customizada, o AbortPolicy padrão lança TaskRejectedException quando a fila enche.
+     */
+    @Bean(name = "passwordHashingExecutor")
+    public ThreadPoolTaskExecutor passwordHashingExecutor(@Value("${security.password.hashing.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int cores = Runtime.getRuntime().availableProcessors();
+        executor.setCorePoolSize(cores);
+        executor.setMaxPoolSize(cores);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("PasswordHashing-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -1,12 +1,21 @@
 package io.github.joaovitorleal.securecapita.config;
 
+import io.github.joaovitorleal.securecapita.security.crypto.BoundedPasswordEncoder;
+import io.github.joaovitorleal.securecapita.security.crypto.CostAwareArgon2PasswordEncoder;
+import io.github.joaovitorleal.securecapita.security.crypto.CostAwareBCryptPasswordEncoder;
 import io.github.joaovitorleal.securecapita.security.filter.CustomAuthorizationFilter;
+import io.github.joaovitorleal.securecapita.security.filter.RateLimitFilter;
 import io.github.joaovitorleal.securecapita.security.handler.CustomAccessDeniedHandler;
 import io.github.joaovitorleal.securecapita.security.handler.CustomAuthenticationEntryPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -15,8 +24,9 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
@@ -24,8 +34,10 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -34,10 +46,11 @@ import java.util.List;
 public class SecurityConfig {
 
     private static final String[] PUBLIC_URLS = {
-            "/users/login/**", "/users", "/users/verify/code/**", "/users/password-resets/**", "/users/verify/password/**",
-            "/users/verify/account/**", "/users/refresh/token/**"
+            "/users/login/**", "/users/verify/code/**", "/users/password-resets/**", "/users/verify/password/**",
+            "/users/verify/account/**", "/users/refresh/token/**", "/users/logout/**"
     };
-    private static final int PASSWORD_STRENGTH = 14;
+    private static final String ENCODER_BCRYPT = "bcrypt";
+    private static final String ENCODER_ARGON2 = "argon2";
     private static final List<String> ALLOWED_ORIGINS = List.of(
             "http://localhost:4200",
             "http://localhost:3000",
@@ -57,7 +70,12 @@ public class SecurityConfig {
     private final CustomAccessDeniedHandler customAccessDeniedHandler;
     private final CustomAuthenticationEntryPoint customAuthenticationEntryPoint;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final CustomAuthorizationFilter customAuthorizationFilter;
+    private final RateLimitFilter rateLimitFilter;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -71,24 +89,65 @@ public class SecurityConfig {
                 .authorizeHttpRequests(authorizationManagerRequest -> {
                     authorizationManagerRequest.requestMatchers(PUBLIC_URLS).permitAll();
                     authorizationManagerRequest.requestMatchers(HttpMethod.OPTIONS).permitAll();
+                    // Dispatch de conclusão das respostas assíncronas (exportações); a requisição original já foi autorizada.
+                    authorizationManagerRequest.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll();
+                    authorizationManagerRequest.requestMatchers(HttpMethod.POST, "/users").permitAll();
+                    authorizationManagerRequest.requestMatchers(HttpMethod.GET, "/actuator/health").permitAll();
+                    // Scrape do Prometheus sem token apenas na porta de gerenciamento, que não é publicada pelo balanceador;
+                    // na porta da API o endpoint exige autenticação.
+                    authorizationManagerRequest.requestMatchers(request -> request.getLocalPort() == managementPort
+                            && HttpMethod.GET.matches(request.getMethod())
+                            && "/actuator/prometheus".equals(request.getRequestURI())).permitAll();
+                    authorizationManagerRequest.requestMatchers(HttpMethod.POST, "/users/import").hasAuthority("CREATE:USER");
+                    authorizationManagerRequest.requestMatchers(HttpMethod.GET, "/users").hasAuthority("UPDATE:USER");
+                    authorizationManagerRequest.requestMatchers(HttpMethod.GET, "/exports/**").hasAuthority("UPDATE:USER");
                     authorizationManagerRequest.requestMatchers(HttpMethod.DELETE, "/users/**").hasAuthority("DELETE:USER");
                     authorizationManagerRequest.requestMatchers(HttpMethod.DELETE, "/customers/**").hasAuthority("DELETE:CUSTOMER");
                     authorizationManagerRequest.anyRequest().authenticated();
                 })
-                .addFilterBefore(customAuthorizationFilter, UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(customAuthorizationFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(rateLimitFilter, CustomAuthorizationFilter.class);
 
         return http.build();
     }
 
+    /**
+     * Hashes são gravados com prefixo do algoritmo ({bcrypt}, {argon2}); o custo fica embutido no próprio hash.
+     * Hashes legados sem prefixo são tratados como BCrypt. Após um login bem-sucedido, o DaoAuthenticationProvider
+     * regrava o hash quando o algoritmo ou o custo diferem do alvo configurado em {@code security.password.encoder}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(PASSWORD_STRENGTH);
+    public PasswordEncoder passwordEncoder(
+            @Value("${security.password.encoder:bcrypt}") String encoderId,
+            @Value("${security.password.bcrypt.strength:14}") int bcryptStrength,
+            @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+            @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+            @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism,
+            @Qualifier("passwordHashingExecutor") ThreadPoolTaskExecutor passwordHashingExecutor,
+            @Value("${security.password.hashing.timeout:5s}") Duration timeout,
+            @Value("${security.password.hashing.retry-after-seconds:2}") long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        PasswordEncoder bcrypt = new CostAwareBCryptPasswordEncoder(bcryptStrength);
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(encoderId, Map.of(
+                ENCODER_BCRYPT, bcrypt,
+                ENCODER_ARGON2, new CostAwareArgon2PasswordEncoder(argon2MemoryKib, argon2Iterations, argon2Parallelism)
+        ));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new BoundedPasswordEncoder(
+                delegatingPasswordEncoder,
+                passwordHashingExecutor,
+                timeout,
+                retryAfterSeconds,
+                meterRegistry
+        );
     }
 
     @Bean
-    public AuthenticationManager authenticationManager() throws Exception {
+    public AuthenticationManager authenticationManager(PasswordEncoder passwordEncoder) throws Exception {
         DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
-        authenticationProvider.setPasswordEncoder(this.passwordEncoder());
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return new ProviderManager(authenticationProvider);
     }
 
@@ -0,0 +1,55 @@
+package io.github.joaovitorleal.securecapita.controller;
+
+import io.github.joaovitorleal.securecapita.domain.enums.DataFormat;
+import io.github.joaovitorleal.securecapita.service.DataExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+/**
+ * Exportações completas para compliance. O corpo é escrito por {@link StreamingResponseBody} fora da thread da
+ * requisição, à medida que as linhas são lidas do banco.
+ */
+@RestController
+@RequestMapping("/exports")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+
+    private final DataExportService dataExportService;
+
+    @GetMapping("/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        return this.streamingResponse("users", format, gzip, out -> dataExportService.exportUsers(format, gzip, out));
+    }
+
+    @GetMapping("/user-events")
+    public ResponseEntity<StreamingResponseBody> exportUserEvents(
+            @RequestParam(defaultValue = "CSV") DataFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        return this.streamingResponse("user-events", format, gzip, out -> dataExportService.exportUserEvents(format, gzip, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> streamingResponse(String name, DataFormat format, boolean gzip, StreamingResponseBody body) {
+        String fileName = name + "-" + LocalDate.now() + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? GZIP_CONTENT_TYPE : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .header("File-Name", fileName)
+                .body(body);
+    }
+}
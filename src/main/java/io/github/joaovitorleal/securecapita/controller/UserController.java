@@ -4,25 +4,44 @@ import io.github.joaovitorleal.securecapita.controller.utils.UriGenerator;
 import io.github.joaovitorleal.securecapita.domain.User;
 import io.github.joaovitorleal.securecapita.dto.*;
 import io.github.joaovitorleal.securecapita.dto.form.LoginFormDto;
+import io.github.joaovitorleal.securecapita.domain.enums.DataFormat;
+import io.github.joaovitorleal.securecapita.domain.enums.EventType;
 import io.github.joaovitorleal.securecapita.exception.JwtAuthenticationInvalidException;
+import io.github.joaovitorleal.securecapita.exception.MfaCodeExpiredException;
+import io.github.joaovitorleal.securecapita.exception.MfaCodeInvalidException;
 import io.github.joaovitorleal.securecapita.mapper.UserMapper;
 import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.security.provider.RefreshTokenStore;
 import io.github.joaovitorleal.securecapita.security.provider.TokenProvider;
+import io.github.joaovitorleal.securecapita.security.provider.TokenRevocationList;
+import io.github.joaovitorleal.securecapita.service.AuditService;
+import io.github.joaovitorleal.securecapita.service.RoleCatalog;
+import io.github.joaovitorleal.securecapita.service.UserImportService;
 import io.github.joaovitorleal.securecapita.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.LockedException;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 import static org.springframework.security.authentication.UsernamePasswordAuthenticationToken.unauthenticated;
 
@@ -39,6 +58,11 @@ public class UserController {
     private final UserMapper userMapper;
     private final AuthenticationManager authenticationManager;
     private final TokenProvider tokenProvider;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationList tokenRevocationList;
+    private final RoleCatalog roleCatalog;
+    private final AuditService auditService;
+    private final UserImportService userImportService;
 
     @PostMapping
     public ResponseEntity<ApiResponseDto> createUser(@RequestBody @Valid UserCreateRequestDto userRequestDto) {
@@ -55,14 +79,45 @@ public class UserController {
                 );
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<ApiResponseDto> importUsers(HttpServletRequest request) throws IOException {
+        DataFormat format = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? DataFormat.CSV
+                : DataFormat.NDJSON;
+        String baseUrl = ServletUriComponentsBuilder.fromCurrentContextPath().toUriString();
+        UserImportResultDto result = userImportService.importUsers(request.getInputStream(), format, baseUrl);
+        return ResponseEntity.ok(
+                ApiResponseDto.builder()
+                        .timestamp(LocalDateTime.now().toString())
+                        .data(Map.of("import", result))
+                        .message("Users imported")
+                        .status(HttpStatus.OK)
+                        .statusCode(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
     @PostMapping("/login")
     public ResponseEntity<ApiResponseDto> login(@RequestBody @Valid LoginFormDto loginForm) {
-        Authentication authentication = authenticationManager.authenticate(unauthenticated(loginForm.email(), loginForm.password()));
+        auditService.publish(EventType.LOGIN_ATTEMPT, loginForm.email());
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(unauthenticated(loginForm.email(), loginForm.password()));
+        } catch (AuthenticationException e) {
+            auditService.publish(EventType.LOGIN_ATTEMPT_FAILURE, loginForm.email());
+            if (e instanceof BadCredentialsException) {
+                userService.recordLoginFailure(loginForm.email());
+            }
+            throw e;
+        }
         CustomUserDetails userPrincipal = (CustomUserDetails) authentication.getPrincipal();
         UserResponseDto userResponseDto = userMapper.toResponseDto(userPrincipal.getUser());
-        return userResponseDto.usingMfa()
-                ? this.sendVerificationMfaCode(userResponseDto)
-                : this.sendLoginSuccessResponse(userResponseDto, userPrincipal);
+        if (userResponseDto.usingMfa()) {
+            return this.sendVerificationMfaCode(userResponseDto);
+        }
+        auditService.publish(EventType.LOGIN_ATTEMPT_SUCCESS, userResponseDto.email());
+        userService.recordLoginSuccess(userResponseDto.email());
+        return this.sendLoginSuccessResponse(userResponseDto, userPrincipal);
     }
 
     @GetMapping("/profile")
@@ -79,19 +134,48 @@ public class UserController {
         );
     }
 
-    
+    @GetMapping
+    public ResponseEntity<ApiResponseDto> listUsers(
+            @RequestParam(defaultValue = "20") @Min(value = 1, message = "The limit must be at least 1.") @Max(value = 100, message = "The limit must be at most 100.") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Boolean enabled,
+            @RequestParam(required = false) Boolean locked,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String emailPrefix
+    ) {
+        UserPageDto page = userService.listUsers(new UserSearchCriteria(enabled, locked, role, emailPrefix), cursor, limit);
+        return ResponseEntity.ok(
+                ApiResponseDto.builder()
+                        .timestamp(LocalDateTime.now().toString())
+                        .data(Map.of("page", page))
+                        .message("Users retrieved")
+                        .status(HttpStatus.OK)
+                        .statusCode(HttpStatus.OK.value())
+                        .build()
+        );
+    }
 
     @PostMapping("/verify/code")
     public ResponseEntity<ApiResponseDto> verifyMfaCode(@RequestBody @Valid MfaVerificationRequestDto mfaVerificationRequestDto) {
-        User user = userService.verifyMfaCode(mfaVerificationRequestDto.email(), mfaVerificationRequestDto.code());
-        CustomUserDetails userPrincipal = new CustomUserDetails(user);
+        User user;
+        try {
+            user = userService.verifyMfaCode(mfaVerificationRequestDto.email(), mfaVerificationRequestDto.code());
+        } catch (MfaCodeInvalidException | MfaCodeExpiredException e) {
+            auditService.publish(EventType.LOGIN_ATTEMPT_FAILURE, mfaVerificationRequestDto.email());
+            userService.recordLoginFailure(mfaVerificationRequestDto.email());
+            throw e;
+        }
+        auditService.publish(EventType.LOGIN_ATTEMPT_SUCCESS, user.getEmail());
+        userService.recordLoginSuccess(user.getEmail());
+        CustomUserDetails userPrincipal = new CustomUserDetails(user, roleCatalog.authoritiesOf(user.getRole()));
+        UUID sessionId = UUID.randomUUID();
         return ResponseEntity.ok(
                 ApiResponseDto.builder()
                         .timestamp(LocalDateTime.now().toString())
                         .data(Map.of(
                                 "user", userMapper.toResponseDto(user),
-                                "access_token", tokenProvider.createAccessToken(userPrincipal),
-                                "refresh_token", tokenProvider.createRefreshToken(userPrincipal)
+                                "access_token", tokenProvider.createAccessToken(userPrincipal, sessionId),
+                                "refresh_token", refreshTokenStore.issue(userPrincipal, sessionId)
                         ))
                         .message("Login successful")
                         .status(HttpStatus.OK)
@@ -162,22 +246,23 @@ public class UserController {
 
     @GetMapping("/refresh/token")
     public ResponseEntity<ApiResponseDto> refreshToken(HttpServletRequest request) {
-            String authHeader = request.getHeader(HEADER_AUTHORIZATION);
-            if (authHeader == null || !authHeader.startsWith(TOKEN_PREFIX)) {
-                throw new JwtAuthenticationInvalidException("Refresh token missing or invalid.");
+            RefreshTokenStore.Session session = refreshTokenStore.consume(this.getBearerToken(request), request);
+            User user =  userService.getUserByEmail(session.email());
+            if (!user.isNonLocked()) {
+                throw new LockedException("User account is locked");
             }
-
-            String token = authHeader.substring(TOKEN_PREFIX.length());
-            User user =  userService.getUserByEmail(tokenProvider.getSubject(token, request));
-            CustomUserDetails userPrincipal = new CustomUserDetails(user);
+            if (!user.isEnabled()) {
+                throw new DisabledException("User is disabled");
+            }
+            CustomUserDetails userPrincipal = new CustomUserDetails(user, roleCatalog.authoritiesOf(user.getRole()));
 
             return ResponseEntity.ok(
                     ApiResponseDto.builder()
                             .timestamp(LocalDateTime.now().toString())
                             .data(Map.of(
                                     "user", userMapper.toResponseDto(user),
-                                    "access_token", tokenProvider.createAccessToken(userPrincipal),
-                                    "refresh_token", tokenProvider.createRefreshToken(userPrincipal)
+                                    "access_token", tokenProvider.createAccessToken(userPrincipal, session.familyId()),
+                                    "refresh_token", refreshTokenStore.issue(userPrincipal, session.familyId())
                             ))
                             .message("Token refresh")
                             .status(HttpStatus.OK)
@@ -186,14 +271,39 @@ public class UserController {
             );
     }
 
+    /**
+     * Encerra a sessão revogando a família do refresh token enviado no header Authorization e os access tokens dela.
+     */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponseDto> logout(HttpServletRequest request) {
+        refreshTokenStore.revoke(this.getBearerToken(request), request).ifPresent(tokenRevocationList::revokeSession);
+        return ResponseEntity.ok(
+                ApiResponseDto.builder()
+                        .timestamp(LocalDateTime.now().toString())
+                        .message("Logged out")
+                        .status(HttpStatus.OK)
+                        .statusCode(HttpStatus.OK.value())
+                        .build()
+        );
+    }
+
+    private String getBearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader(HEADER_AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(TOKEN_PREFIX)) {
+            throw new JwtAuthenticationInvalidException("Refresh token missing or invalid.");
+        }
+        return authHeader.substring(TOKEN_PREFIX.length());
+    }
+
     private ResponseEntity<ApiResponseDto> sendLoginSuccessResponse(UserResponseDto userResponseDto, CustomUserDetails userPrincipal) {
+        UUID sessionId = UUID.randomUUID();
         return ResponseEntity.ok(
                 ApiResponseDto.builder()
                         .timestamp(LocalDateTime.now().toString())
                         .data(Map.of(
                                 "user", userResponseDto,
-                                "access_token", tokenProvider.createAccessToken(userPrincipal),
-                                "refresh_token", tokenProvider.createRefreshToken(userPrincipal)
+                                "access_token", tokenProvider.createAccessToken(userPrincipal, sessionId),
+                                "refresh_token", refreshTokenStore.issue(userPrincipal, sessionId)
                         ))
                         .message("Login successful")
                         .status(HttpStatus.OK)
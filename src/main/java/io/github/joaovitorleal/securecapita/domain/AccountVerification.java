@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
@@ -14,21 +15,30 @@ public class AccountVerification implements Serializable {
     private static final long serialVersionUID = 2L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_verifications_id")
+    @TableGenerator(name = "account_verifications_id", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val", pkColumnValue = "account_verifications", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true, nullable = false)
     private User user;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String url;
 
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", length = 32, unique = true, nullable = false)
+    private byte[] tokenHash;
+
+    @Column(name = "expiration_date", nullable = false)
+    private LocalDateTime expirationDate;
+
     public AccountVerification() {}
 
-    public AccountVerification(User user, String url) {
+    public AccountVerification(User user, String url, byte[] tokenHash, LocalDateTime expirationDate) {
         this.url = url;
         this.user = user;
+        this.tokenHash = tokenHash;
+        this.expirationDate = expirationDate;
     }
 
     public Long getId() {
@@ -55,6 +65,22 @@ public class AccountVerification implements Serializable {
         this.url = url;
     }
 
+    public byte[] getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public LocalDateTime getExpirationDate() {
+        return expirationDate;
+    }
+
+    public void setExpirationDate(LocalDateTime expirationDate) {
+        this.expirationDate = expirationDate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
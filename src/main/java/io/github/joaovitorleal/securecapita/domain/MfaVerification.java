@@ -8,14 +8,15 @@ import java.time.LocalDateTime;
 import java.util.Objects;
 
 @Entity
-@Table(name = "two_factor_verifications")
+@Table(name = "mfa_verifications")
 public class MfaVerification implements Serializable {
 
     @Serial
     private static final long serialVersionUID = 2L;
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "mfa_verifications_id")
+    @TableGenerator(name = "mfa_verifications_id", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val", pkColumnValue = "mfa_verifications", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.EAGER)
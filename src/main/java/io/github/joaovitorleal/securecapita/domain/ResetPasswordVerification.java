@@ -10,16 +10,20 @@ import java.util.Objects;
 public class ResetPasswordVerification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reset_password_verifications_id")
+    @TableGenerator(name = "reset_password_verifications_id", table = "id_generators", pkColumnName = "name", valueColumnName = "next_val", pkColumnValue = "reset_password_verifications", allocationSize = 50)
     private Long id;
 
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", referencedColumnName = "id", unique = true, nullable = false)
     private User user;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String url;
 
+    @Column(name = "token_hash", columnDefinition = "BINARY(32)", length = 32, unique = true, nullable = false)
+    private byte[] tokenHash;
+
     @Column(name = "expiration_date", nullable = false)
     private LocalDateTime expirationDate;
 
@@ -28,9 +32,10 @@ public class ResetPasswordVerification {
     }
 
     // Construtor de conveniência
-    public ResetPasswordVerification(User user, String url, LocalDateTime expirationDate) {
+    public ResetPasswordVerification(User user, String url, byte[] tokenHash, LocalDateTime expirationDate) {
         this.user = user;
         this.url = url;
+        this.tokenHash = tokenHash;
         this.expirationDate = expirationDate;
     }
 
@@ -66,6 +71,14 @@ public class ResetPasswordVerification {
         this.expirationDate = expirationDate;
     }
 
+    public byte[] getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (o == null || getClass() != o.getClass()) return false;
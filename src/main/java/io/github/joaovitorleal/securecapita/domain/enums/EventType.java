@@ -0,0 +1,16 @@
+package io.github.joaovitorleal.securecapita.domain.enums;
+
+/**
+ * Tipos de evento de auditoria; espelham a coluna {@code type} da tabela {@code events}.
+ */
+public enum EventType {
+    LOGIN_ATTEMPT,
+    LOGIN_ATTEMPT_FAILURE,
+    LOGIN_ATTEMPT_SUCCESS,
+    PROFILE_UPDATE,
+    PROFILE_PICTURE_UPDATE,
+    ROLE_UPDATE,
+    ACCOUNT_SETTINGS_UPDATE,
+    PASSWORD_UPDATE,
+    MFA_UPDATE
+}
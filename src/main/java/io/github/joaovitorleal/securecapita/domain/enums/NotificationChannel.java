@@ -0,0 +1,6 @@
+package io.github.joaovitorleal.securecapita.domain.enums;
+
+public enum NotificationChannel {
+    EMAIL,
+    SMS
+}
@@ -0,0 +1,8 @@
+package io.github.joaovitorleal.securecapita.domain.enums;
+
+public enum NotificationStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    FAILED
+}
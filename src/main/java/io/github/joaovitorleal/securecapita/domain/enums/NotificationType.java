@@ -0,0 +1,9 @@
+package io.github.joaovitorleal.securecapita.domain.enums;
+
+public enum NotificationType {
+    MFA_CODE,
+    RESET_PASSWORD_URL,
+    RESET_PASSWORD_CONFIRMATION,
+    ACCOUNT_VERIFICATION_URL,
+    ACCOUNT_VERIFIED
+}
@@ -0,0 +1,19 @@
+package io.github.joaovitorleal.securecapita.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de uma importação em massa de usuários.
+ *
+ * @param imported usuários criados.
+ * @param skipped linhas ignoradas: e-mail já cadastrado ou repetido no arquivo.
+ * @param rejected linhas inválidas ou de lotes recusados pelo banco.
+ * @param errors primeiros erros, no formato {@code line N: motivo}.
+ */
+public record UserImportResultDto(
+        long imported,
+        long skipped,
+        long rejected,
+        List<String> errors
+) {
+}
@@ -0,0 +1,15 @@
+package io.github.joaovitorleal.securecapita.dto;
+
+import java.util.List;
+
+/**
+ * Página da listagem de usuários.
+ *
+ * @param users usuários da página, do mais recente para o mais antigo.
+ * @param nextCursor cursor opaco da próxima página; nulo na última página.
+ */
+public record UserPageDto(
+        List<UserResponseDto> users,
+        String nextCursor
+) {
+}
@@ -0,0 +1,17 @@
+package io.github.joaovitorleal.securecapita.dto;
+
+/**
+ * Filtros opcionais da listagem de usuários; campos nulos não filtram.
+ *
+ * @param enabled conta ativada.
+ * @param locked conta bloqueada.
+ * @param role nome do papel, ex.: {@code ROLE_USER}.
+ * @param emailPrefix início do e-mail (sem curingas).
+ */
+public record UserSearchCriteria(
+        Boolean enabled,
+        Boolean locked,
+        String role,
+        String emailPrefix
+) {
+}
@@ -0,0 +1,12 @@
+package io.github.joaovitorleal.securecapita.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportFileException extends ApiException {
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package io.github.joaovitorleal.securecapita.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Lançada quando o corpo de uma requisição com limite de tentativas não traz um único campo {@code email} legível.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidRequestBodyException extends ApiException {
+
+    public InvalidRequestBodyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package io.github.joaovitorleal.securecapita.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Lançada quando o corpo de uma requisição com limite de tentativas passa do tamanho que o {@code RateLimitFilter}
+ * inspeciona.
+ */
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class RequestBodyTooLargeException extends ApiException {
+
+    public RequestBodyTooLargeException(String message) {
+        super(message);
+    }
+}
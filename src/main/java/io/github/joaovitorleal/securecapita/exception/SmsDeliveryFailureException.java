@@ -0,0 +1,8 @@
+package io.github.joaovitorleal.securecapita.exception;
+
+public class SmsDeliveryFailureException extends NotificationFailureException {
+
+    public SmsDeliveryFailureException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
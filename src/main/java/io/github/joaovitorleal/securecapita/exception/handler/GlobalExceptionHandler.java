@@ -176,11 +176,48 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
         return this.createProblemDetail(HttpStatus.INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR_MESSAGE, INTERNAL_SERVER_ERROR_TITLE, request);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ProblemDetail> handlePasswordHashingUnavailableException(final PasswordHashingUnavailableException ex, final HttpServletRequest request) {
+        log.warn("Password hashing saturated at URI [{}]: {}", request.getRequestURI(), ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(this.createProblemDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), "Service Unavailable", request));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ProblemDetail> handleRateLimitExceededException(final RateLimitExceededException ex, final HttpServletRequest request) {
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(this.createProblemDetail(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), "Too Many Requests", request));
+    }
+
+    @ExceptionHandler(RequestBodyTooLargeException.class)
+    public ProblemDetail handleRequestBodyTooLargeException(final RequestBodyTooLargeException ex, final HttpServletRequest request) {
+        return this.createProblemDetail(HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), "Payload Too Large", request);
+    }
+
+    @ExceptionHandler(InvalidRequestBodyException.class)
+    public ProblemDetail handleInvalidRequestBodyException(final InvalidRequestBodyException ex, final HttpServletRequest request) {
+        return this.createProblemDetail(HttpStatus.BAD_REQUEST, ex.getMessage(), "Invalid Request Body", request);
+    }
+
     @ExceptionHandler(EmailAlreadyExistsException.class)
     public ProblemDetail handleEmailAlreadyExistsException(final EmailAlreadyExistsException ex, final HttpServletRequest request) {
         return this.createProblemDetail(HttpStatus.CONFLICT, ex.getMessage(), "Email Already Exists", request);
     }
 
+    @ExceptionHandler(InvalidPageCursorException.class)
+    public ProblemDetail handleInvalidPageCursorException(final InvalidPageCursorException ex, final HttpServletRequest request) {
+        return this.createProblemDetail(HttpStatus.BAD_REQUEST, ex.getMessage(), "Invalid Page Cursor", request);
+    }
+
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ProblemDetail handleInvalidImportFileException(final InvalidImportFileException ex, final HttpServletRequest request) {
+        return this.createProblemDetail(HttpStatus.BAD_REQUEST, ex.getMessage(), "Invalid Import File", request);
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ProblemDetail handleResourceNotFoundException(final ResourceNotFoundException ex, final HttpServletRequest request) {
         return this.createProblemDetail(HttpStatus.NOT_FOUND, ex.getMessage(), "Resource Not Found", request);
@@ -1,12 +1,26 @@
 package io.github.joaovitorleal.securecapita.repository;
 
 import io.github.joaovitorleal.securecapita.domain.AccountVerification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountVerificationJpaRepository extends JpaRepository<AccountVerification, Long> {
 
-    Optional<AccountVerification> findByUrl(String url);
+    Optional<AccountVerification> findByTokenHash(byte[] tokenHash);
     void deleteByUserId(Long userId);
+
+    @Query("SELECT av.id FROM AccountVerification av WHERE av.expirationDate < :now ORDER BY av.expirationDate, av.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM AccountVerification av WHERE av.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
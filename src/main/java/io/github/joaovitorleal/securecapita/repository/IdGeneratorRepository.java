@@ -0,0 +1,46 @@
+package io.github.joaovitorleal.securecapita.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Reserva de ids na tabela {@code id_generators} para inserts feitos fora do Hibernate (JDBC em lote).
+ * <p>
+ * Segue o mesmo protocolo do {@code @TableGenerator} pooled-lo das entidades: lê {@code next_val}, usa os ids a partir
+ * dele e avança o contador pelo tamanho do bloco, numa transação própria. Assim os blocos reservados aqui nunca se
+ * sobrepõem aos do Hibernate.
+ */
+@Repository
+public class IdGeneratorRepository {
+
+    private static final String SELECT_FOR_UPDATE_SQL = "SELECT next_val FROM id_generators WHERE name = ? FOR UPDATE";
+    private static final String UPDATE_SQL = "UPDATE id_generators SET next_val = ? WHERE name = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNewTransaction;
+
+    public IdGeneratorRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserva {@code count} ids consecutivos.
+     *
+     * @param name nome do contador, ex.: {@code users}.
+     * @param count quantidade de ids.
+     * @return o primeiro id do bloco; o bloco vai até {@code primeiro + count - 1}.
+     */
+    public long allocate(String name, int count) {
+        Long first = requiresNewTransaction.execute(status -> {
+            Long next = jdbcTemplate.queryForObject(SELECT_FOR_UPDATE_SQL, Long.class, name);
+            jdbcTemplate.update(UPDATE_SQL, next + count, name);
+            return next;
+        });
+        return first;
+    }
+}
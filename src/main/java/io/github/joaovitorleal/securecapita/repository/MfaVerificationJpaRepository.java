@@ -1,11 +1,15 @@
 package io.github.joaovitorleal.securecapita.repository;
 
 import io.github.joaovitorleal.securecapita.domain.MfaVerification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface MfaVerificationJpaRepository extends JpaRepository<MfaVerification, Long> {
@@ -16,4 +20,11 @@ public interface MfaVerificationJpaRepository extends JpaRepository<MfaVerificat
 
     @Query("SELECT tfv FROM MfaVerification tfv WHERE tfv.user.id = :userId")
     Optional<MfaVerification> findByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT tfv.id FROM MfaVerification tfv WHERE tfv.expirationDate < :now ORDER BY tfv.expirationDate, tfv.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM MfaVerification tfv WHERE tfv.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
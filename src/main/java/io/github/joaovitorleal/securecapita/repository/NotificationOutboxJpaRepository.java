@@ -0,0 +1,93 @@
+package io.github.joaovitorleal.securecapita.repository;
+
+import io.github.joaovitorleal.securecapita.domain.NotificationOutbox;
+import io.github.joaovitorleal.securecapita.domain.enums.NotificationStatus;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface NotificationOutboxJpaRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Reserva as mensagens vencidas (PENDING, ou PROCESSING com lease expirado após queda de um nó).
+     * SKIP LOCKED permite que várias instâncias drenem a outbox em paralelo sem disputar as mesmas linhas.
+     */
+    @Query(value = """
+            SELECT * FROM notification_outbox
+            WHERE status IN ('PENDING', 'PROCESSING') AND next_attempt_at <= :now
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<NotificationOutbox> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = :status, n.nextAttemptAt = :nextAttemptAt WHERE n.id IN :ids")
+    void updateStatus(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") NotificationStatus status,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt
+    );
+
+    /**
+     * Finaliza as mensagens enviadas. O {@code content} (código MFA, link de redefinição) é apagado, já que não será
+     * mais usado.
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox n SET n.status = 'SENT', n.content = NULL, n.lastError = NULL WHERE n.id IN :ids")
+    void markSent(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Mensagens finalizadas (SENT ou FAILED) cuja última tentativa é anterior a {@code before}, das mais antigas para
+     * as mais recentes; usa o índice (status, next_attempt_at).
+     */
+    @Query("""
+            SELECT n.id FROM NotificationOutbox n
+            WHERE n.status IN (io.github.joaovitorleal.securecapita.domain.enums.NotificationStatus.SENT,
+                               io.github.joaovitorleal.securecapita.domain.enums.NotificationStatus.FAILED)
+              AND n.nextAttemptAt < :before
+            ORDER BY n.nextAttemptAt, n.id
+            """)
+    List<Long> findFinishedIdsBefore(@Param("before") LocalDateTime before, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM NotificationOutbox n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox n
+            SET n.status = :status, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt, n.lastError = :lastError
+            WHERE n.id = :id
+            """)
+    void markFailedAttempt(
+            @Param("id") Long id,
+            @Param("status") NotificationStatus status,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+
+    /**
+     * Finaliza a mensagem como FAILED após a última tentativa, apagando o {@code content} como em {@link #markSent}.
+     */
+    @Modifying
+    @Query("""
+            UPDATE NotificationOutbox n
+            SET n.status = 'FAILED', n.content = NULL, n.attempts = :attempts, n.nextAttemptAt = :nextAttemptAt,
+                n.lastError = :lastError
+            WHERE n.id = :id
+            """)
+    void markFailed(
+            @Param("id") Long id,
+            @Param("attempts") int attempts,
+            @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+            @Param("lastError") String lastError
+    );
+}
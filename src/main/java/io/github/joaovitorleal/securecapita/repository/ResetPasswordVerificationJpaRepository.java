@@ -1,18 +1,29 @@
 package io.github.joaovitorleal.securecapita.repository;
 
 import io.github.joaovitorleal.securecapita.domain.ResetPasswordVerification;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface ResetPasswordVerificationJpaRepository extends JpaRepository<ResetPasswordVerification, Long> {
 
-    Optional<ResetPasswordVerification> findByUrl(String url);
+    Optional<ResetPasswordVerification> findByTokenHash(byte[] tokenHash);
 
     @Modifying(clearAutomatically = true)
     @Query("DELETE FROM ResetPasswordVerification rpv WHERE rpv.user.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT rpv.id FROM ResetPasswordVerification rpv WHERE rpv.expirationDate < :now ORDER BY rpv.expirationDate, rpv.id")
+    List<Long> findExpiredIds(@Param("now") LocalDateTime now, Limit limit);
+
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM ResetPasswordVerification rpv WHERE rpv.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,102 @@
+package io.github.joaovitorleal.securecapita.repository;
+
+import io.github.joaovitorleal.securecapita.domain.enums.MfaType;
+import io.github.joaovitorleal.securecapita.dto.RoleDto;
+import io.github.joaovitorleal.securecapita.dto.UserResponseDto;
+import io.github.joaovitorleal.securecapita.dto.UserSearchCriteria;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Consultas de leitura sobre {@code users} que projetam direto em {@link UserResponseDto}, sem carregar entidades.
+ * <p>
+ * A listagem usa paginação por chave (seek) em {@code (created_at, id)} decrescente: cada página continua a partir da
+ * última linha da anterior pelo índice {@code idx_users_created_at_id}, com custo independente da profundidade.
+ */
+@Repository
+public class UserQueryRepository {
+
+    private static final String SELECT_PAGE = """
+            SELECT u.id, u.first_name, u.last_name, u.email, u.phone, u.address, u.title, u.bio,
+                   u.enabled, u.non_locked, u.using_mfa, u.mfa_type, u.image_url, u.created_at,
+                   r.name AS role_name, r.permission AS role_permission
+            FROM users u
+            LEFT JOIN user_roles ur ON ur.user_id = u.id
+            LEFT JOIN roles r ON r.id = ur.role_id
+            WHERE 1 = 1
+            """;
+
+    private static final RowMapper<UserResponseDto> USER_ROW_MAPPER = (rs, rowNum) -> {
+        String roleName = rs.getString("role_name");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        return new UserResponseDto(
+                rs.getLong("id"),
+                rs.getString("first_name"),
+                rs.getString("last_name"),
+                rs.getString("email"),
+                rs.getString("phone"),
+                rs.getString("address"),
+                rs.getString("title"),
+                rs.getString("bio"),
+                rs.getBoolean("enabled"),
+                rs.getBoolean("non_locked"),
+                rs.getBoolean("using_mfa"),
+                MfaType.valueOf(rs.getString("mfa_type")),
+                rs.getString("image_url"),
+                createdAt != null ? createdAt.toLocalDateTime() : null,
+                roleName != null ? new RoleDto(roleName, rs.getString("role_permission")) : null
+        );
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public UserQueryRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Busca até {@code limit} usuários anteriores à posição {@code (afterCreatedAt, afterId)}, do mais recente para o
+     * mais antigo.
+     *
+     * @param criteria filtros opcionais.
+     * @param afterCreatedAt {@code created_at} da última linha da página anterior; nulo na primeira página.
+     * @param afterId id da última linha da página anterior; nulo na primeira página.
+     * @param limit quantidade máxima de linhas.
+     */
+    public List<UserResponseDto> findPage(UserSearchCriteria criteria, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT_PAGE);
+        MapSqlParameterSource params = new MapSqlParameterSource("limit", limit);
+        if (afterCreatedAt != null && afterId != null) {
+            sql.append(" AND (u.created_at < :afterCreatedAt OR (u.created_at = :afterCreatedAt AND u.id < :afterId))");
+            params.addValue("afterCreatedAt", Timestamp.valueOf(afterCreatedAt)).addValue("afterId", afterId);
+        }
+        if (criteria.enabled() != null) {
+            sql.append(" AND u.enabled = :enabled");
+            params.addValue("enabled", criteria.enabled());
+        }
+        if (criteria.locked() != null) {
+            sql.append(" AND u.non_locked = :nonLocked");
+            params.addValue("nonLocked", !criteria.locked());
+        }
+        if (criteria.role() != null && !criteria.role().isBlank()) {
+            sql.append(" AND r.name = :role");
+            params.addValue("role", criteria.role());
+        }
+        if (criteria.emailPrefix() != null && !criteria.emailPrefix().isBlank()) {
+            sql.append(" AND u.email LIKE :emailPrefix");
+            params.addValue("emailPrefix", escapeLike(criteria.emailPrefix().toLowerCase()) + "%");
+        }
+        sql.append(" ORDER BY u.created_at DESC, u.id DESC LIMIT :limit");
+        return jdbcTemplate.query(sql.toString(), params, USER_ROW_MAPPER);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
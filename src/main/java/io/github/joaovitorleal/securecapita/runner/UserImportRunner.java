@@ -0,0 +1,71 @@
+package io.github.joaovitorleal.securecapita.runner;
+
+import io.github.joaovitorleal.securecapita.domain.enums.DataFormat;
+import io.github.joaovitorleal.securecapita.dto.UserImportResultDto;
+import io.github.joaovitorleal.securecapita.service.UserImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Importação em massa pela linha de comando, sem passar pela API:
+ * <pre>
+ * java -jar securecapita.jar --spring.main.web-application-type=none \
+ *      --user.import.file=/data/users.csv.gz --user.import.base-url=https://securecapita.org
+ * </pre>
+ * O formato vem da extensão ({@code .csv}, {@code .ndjson} ou {@code .jsonl}, opcionalmente com {@code .gz}). Ao
+ * terminar, a aplicação é encerrada com código 0, ou 1 se alguma linha foi rejeitada. Os e-mails de verificação ficam
+ * na outbox e são enviados pelas instâncias da API.
+ */
+@Component
+@ConditionalOnProperty(name = "user.import.file")
+@Slf4j
+public class UserImportRunner implements ApplicationRunner {
+
+    private final UserImportService userImportService;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${user.import.file}")
+    private Path file;
+
+    @Value("${user.import.base-url:http://localhost:8080}")
+    private String baseUrl;
+
+    public UserImportRunner(UserImportService userImportService, ConfigurableApplicationContext context) {
+        this.userImportService = userImportService;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        String name = file.getFileName().toString().toLowerCase();
+        boolean gzip = name.endsWith(".gz");
+        String baseName = gzip ? name.substring(0, name.length() - ".gz".length()) : name;
+        DataFormat format = baseName.endsWith(".csv") ? DataFormat.CSV : DataFormat.NDJSON;
+
+        log.info("Importing users from {} as {}.", file, format);
+        UserImportResultDto result;
+        try (InputStream in = this.open(gzip)) {
+            result = userImportService.importUsers(in, format, baseUrl);
+        }
+        result.errors().forEach(error -> log.warn("Rejected {}", error));
+        int exitCode = result.rejected() > 0 ? 1 : 0;
+        System.exit(SpringApplication.exit(context, () -> exitCode));
+    }
+
+    private InputStream open(boolean gzip) throws Exception {
+        InputStream in = new BufferedInputStream(Files.newInputStream(file));
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+}
@@ -0,0 +1,127 @@
+package io.github.joaovitorleal.securecapita.security.crypto;
+
+import io.github.joaovitorleal.securecapita.exception.PasswordHashingUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link PasswordEncoder} que executa {@code encode} e {@code matches} em um pool dedicado e limitado.
+ * <p>
+ * O custo do BCrypt fica restrito a um número fixo de threads; quando a fila do pool está cheia a chamada falha
+ * imediatamente com {@link PasswordHashingUnavailableException} (503 + Retry-After) em vez de ocupar threads
+ * do Tomcat que atendem os demais endpoints. Recusas por fila cheia e esperas que passam de {@code timeout} são
+ * contadas em métricas separadas ({@code securecapita.password.hash.rejected} e
+ * {@code securecapita.password.hash.timeouts}): a primeira indica falta de fila, a segunda hashes lentos demais.
+ * <p>
+ * No timeout, {@code future.cancel(true)} só impede que uma tarefa ainda na fila comece. BCrypt e Argon2 não
+ * verificam interrupção, então um hash já em execução continua ocupando a thread do pool e a CPU até terminar; o
+ * resultado é descartado. A vazão real é limitada pelo tamanho do pool, não pelo timeout.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final String MESSAGE_UNAVAILABLE = "The server is busy. Please try again shortly.";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolTaskExecutor executor;
+    private final Duration timeout;
+    private final long retryAfterSeconds;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedCounter;
+    private final Counter timeoutCounter;
+
+    public BoundedPasswordEncoder(
+            PasswordEncoder delegate,
+            ThreadPoolTaskExecutor executor,
+            Duration timeout,
+            long retryAfterSeconds,
+            MeterRegistry meterRegistry
+    ) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.timeout = timeout;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.encodeTimer = Timer.builder("securecapita.password.hash")
+                .tag("operation", "encode")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder("securecapita.password.hash")
+                .tag("operation", "matches")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("securecapita.password.hash.rejected")
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("securecapita.password.hash.timeouts")
+                .register(meterRegistry);
+        Gauge.builder("securecapita.password.hash.queue", executor, ThreadPoolTaskExecutor::getQueueSize)
+                .register(meterRegistry);
+        Gauge.builder("securecapita.password.hash.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return this.execute(() -> delegate.encode(rawPassword), encodeTimer);
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return this.execute(() -> delegate.matches(rawPassword, encodedPassword), matchesTimer);
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Encoder original, sem o limite do pool. Para processos em lote que controlam o próprio paralelismo, como a
+     * importação de usuários, e não devem disputar o pool reservado ao login.
+     */
+    public PasswordEncoder getDelegate() {
+        return delegate;
+    }
+
+    private <T> T execute(Callable<T> task, Timer timer) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> timer.recordCallable(task));
+        } catch (TaskRejectedException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingUnavailableException(MESSAGE_UNAVAILABLE, retryAfterSeconds, e);
+        }
+
+        try {
+            return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Tira a tarefa da fila se ainda não começou; se já começou, o hash roda até o fim mesmo assim.
+            future.cancel(true);
+            timeoutCounter.increment();
+            throw new PasswordHashingUnavailableException(MESSAGE_UNAVAILABLE, retryAfterSeconds, e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingUnavailableException(MESSAGE_UNAVAILABLE, retryAfterSeconds, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException("Password hashing failed.", e.getCause());
+        }
+    }
+}
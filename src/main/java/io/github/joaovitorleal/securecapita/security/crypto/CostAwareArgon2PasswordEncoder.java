@@ -0,0 +1,30 @@
+package io.github.joaovitorleal.securecapita.security.crypto;
+
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+
+/**
+ * Argon2id que considera desatualizado qualquer hash cujos parâmetros (memória, iterações, paralelismo)
+ * sejam diferentes dos configurados.
+ */
+public class CostAwareArgon2PasswordEncoder extends Argon2PasswordEncoder {
+
+    private static final int SALT_LENGTH = 16;
+    private static final int HASH_LENGTH = 32;
+
+    private final String parameters;
+
+    public CostAwareArgon2PasswordEncoder(int memoryKib, int iterations, int parallelism) {
+        super(SALT_LENGTH, HASH_LENGTH, parallelism, memoryKib, iterations);
+        this.parameters = "m=" + memoryKib + ",t=" + iterations + ",p=" + parallelism;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Formato: $argon2id$v=19$m=<memória>,t=<iterações>,p=<paralelismo>$<salt>$<hash>
+        if (encodedPassword == null) {
+            return false;
+        }
+        String[] parts = encodedPassword.split("\\$");
+        return parts.length == 6 && !parameters.equals(parts[3]);
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.joaovitorleal.securecapita.security.crypto;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * BCrypt que considera desatualizado qualquer hash com custo diferente do configurado, permitindo tanto
+ * aumentar quanto reduzir o custo no próximo login (o {@link BCryptPasswordEncoder} padrão só aumenta).
+ */
+public class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private final int strength;
+
+    public CostAwareBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Formato: $2a$NN$<salt+hash>
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        int costStart = encodedPassword.indexOf('$', 1) + 1;
+        int costEnd = encodedPassword.indexOf('$', costStart);
+        if (costStart <= 0 || costEnd < 0) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword, costStart, costEnd, 10) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
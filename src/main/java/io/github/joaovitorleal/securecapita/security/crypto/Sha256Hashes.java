@@ -0,0 +1,38 @@
+package io.github.joaovitorleal.securecapita.security.crypto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * SHA-256 de textos gravados como chave em colunas {@code BINARY(32)} indexadas: tokens das URLs de verificação de
+ * conta e de redefinição de senha, {@code jti} dos refresh tokens e chaves do rate limit.
+ * <p>
+ * O banco guarda apenas o hash; a busca é feita por ele e a confirmação de tokens usa comparação em tempo constante
+ * ({@link #matches(byte[], String)}). O formato é o mesmo de {@code UNHEX(SHA2(texto, 256))} no MySQL, usado pelas
+ * migrações que preenchem as linhas existentes.
+ */
+public final class Sha256Hashes {
+
+    public static final int HASH_LENGTH = 32;
+
+    private Sha256Hashes() {
+    }
+
+    public static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available.", e);
+        }
+    }
+
+    /**
+     * @param expectedHash hash armazenado.
+     * @param token token recebido na URL.
+     * @return true se o hash do token for igual ao armazenado (comparação em tempo constante).
+     */
+    public static boolean matches(byte[] expectedHash, String token) {
+        return expectedHash != null && MessageDigest.isEqual(expectedHash, hash(token));
+    }
+}
@@ -0,0 +1,80 @@
+package io.github.joaovitorleal.securecapita.security.filter;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+
+/**
+ * Lê antecipadamente até {@code maxBytes} do corpo da requisição e os devolve, seguidos do restante do stream original,
+ * a quem ler o corpo depois (ex.: o {@code @RequestBody} do controller).
+ */
+final class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] prefix;
+    private final ServletInputStream original;
+    private final ServletInputStream replay;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int maxBytes) throws IOException {
+        super(request);
+        this.original = request.getInputStream();
+        this.prefix = original.readNBytes(maxBytes);
+        this.replay = new ReplayInputStream(new SequenceInputStream(new ByteArrayInputStream(prefix), original));
+    }
+
+    /**
+     * Bytes lidos antecipadamente; o corpo pode continuar além deles.
+     */
+    byte[] getPrefix() {
+        return prefix;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return replay;
+    }
+
+    private final class ReplayInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+        private boolean finished;
+
+        private ReplayInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            finished = b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = delegate.read(buffer, offset, length);
+            finished = read < 0;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            original.setReadListener(readListener);
+        }
+    }
+}
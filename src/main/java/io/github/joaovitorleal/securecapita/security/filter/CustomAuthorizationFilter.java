@@ -1,6 +1,10 @@
 package io.github.joaovitorleal.securecapita.security.filter;
 
+import io.github.joaovitorleal.securecapita.exception.JwtAuthenticationInvalidException;
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
 import io.github.joaovitorleal.securecapita.security.provider.TokenProvider;
+import io.github.joaovitorleal.securecapita.security.provider.TokenRevocationList;
+import io.github.joaovitorleal.securecapita.security.provider.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,7 +13,6 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -24,16 +27,23 @@ public class CustomAuthorizationFilter extends OncePerRequestFilter {
 
     private static final String HEADER_AUTHORIZATION = "Authorization";
     private static final String TOKEN_PREFIX = "Bearer ";
-    private static final List<String> PUBLIC_ROUTES = List.of("/users/login", "/users/verify/code", "/users/refresh/token");
+    private static final String MESSAGE_TOKEN_REVOKED = "Your session has been revoked. Please log in again.";
+    private static final List<String> PUBLIC_ROUTES = List.of("/users/login", "/users/verify/code", "/users/refresh/token", "/users/logout");
 
     private final TokenProvider tokenProvider;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationList tokenRevocationList;
     private final HandlerExceptionResolver resolver;
 
     public CustomAuthorizationFilter(
             TokenProvider tokenProvider,
+            VerifiedTokenCache verifiedTokenCache,
+            TokenRevocationList tokenRevocationList,
             @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver
     ) {
         this.tokenProvider = tokenProvider;
+        this.verifiedTokenCache = verifiedTokenCache;
+        this.tokenRevocationList = tokenRevocationList;
         this.resolver = exceptionResolver;
     }
 
@@ -52,10 +62,13 @@ public class CustomAuthorizationFilter extends OncePerRequestFilter {
         try {
             String token = this.getToken(request);
             if (token != null && !token.isBlank()) {
-                String email = tokenProvider.getSubject(token, request);
+                TokenPrincipal principal = verifiedTokenCache.get(token, t -> tokenProvider.getPrincipal(t, request));
+                if (tokenRevocationList.isRevoked(principal)) {
+                    throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_REVOKED);
+                }
+                String email = principal.subject();
                 if (email != null && !email.isBlank()) {
-                    List<GrantedAuthority> authorities = tokenProvider.getAuthorities(token);
-                    Authentication authentication = tokenProvider.getAuthentication(email, authorities, request);
+                    Authentication authentication = tokenProvider.getAuthentication(email, principal.authorities(), request);
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
             }
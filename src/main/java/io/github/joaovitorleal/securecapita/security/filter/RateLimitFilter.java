@@ -0,0 +1,186 @@
+package io.github.joaovitorleal.securecapita.security.filter;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.github.joaovitorleal.securecapita.exception.ApiException;
+import io.github.joaovitorleal.securecapita.exception.InvalidRequestBodyException;
+import io.github.joaovitorleal.securecapita.exception.RateLimitExceededException;
+import io.github.joaovitorleal.securecapita.exception.RequestBodyTooLargeException;
+import io.github.joaovitorleal.securecapita.security.ratelimit.RateLimitStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita tentativas de login, verificação MFA e redefinição de senha por IP e por e-mail, antes de qualquer hash de
+ * senha ou acesso ao banco. Excedido o limite, responde 429 com {@code Retry-After}.
+ * <p>
+ * O e-mail vem do corpo JSON ({@code /users/login}, {@code /users/verify/code}) ou do path
+ * ({@code /users/password-resets/{email}}). O corpo é lido por inteiro antes do controller, até
+ * {@value #MAX_INSPECTED_BODY_BYTES} bytes: um corpo maior é recusado com 413, e um corpo sem exatamente um campo
+ * {@code email} de primeiro nível com 400. Aceitar esses corpos só com o limite por IP deixaria um cliente escapar do
+ * limite por e-mail preenchendo o JSON, já que o controller ignora campos desconhecidos e, com chaves repetidas, fica
+ * com a última. Os baldes de cada endpoint são independentes.
+ * O IP é o de {@code request.getRemoteAddr()}; atrás do balanceador, o Tomcat já o resolveu a partir do
+ * {@code X-Forwarded-For} enviado pelos proxies confiáveis ({@code server.forward-headers-strategy=native}), senão todos
+ * os clientes dividiriam o balde do IP do proxy.
+ * Os contadores ficam no {@link RateLimitStore} configurado, local ou compartilhado entre as instâncias.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    static final int MAX_INSPECTED_BODY_BYTES = 4096;
+    private static final String PASSWORD_RESETS_PREFIX = "/users/password-resets/";
+    private static final String KEY_IP = "ip";
+    private static final String KEY_EMAIL = "email";
+    private static final String MESSAGE_BODY_TOO_LARGE = "Request body is too large.";
+    private static final String MESSAGE_EMAIL_REQUIRED = "Request body must be a JSON object with a single email field.";
+
+    private final boolean enabled;
+    private final int ipCapacity;
+    private final Duration ipRefillPeriod;
+    private final int emailCapacity;
+    private final Duration emailRefillPeriod;
+    private final RateLimitStore store;
+    private final HandlerExceptionResolver resolver;
+    private final MeterRegistry meterRegistry;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public RateLimitFilter(
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.ip.capacity:20}") int ipCapacity,
+            @Value("${security.rate-limit.ip.refill-period:1m}") Duration ipRefillPeriod,
+            @Value("${security.rate-limit.email.capacity:5}") int emailCapacity,
+            @Value("${security.rate-limit.email.refill-period:5m}") Duration emailRefillPeriod,
+            RateLimitStore store,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.ipCapacity = ipCapacity;
+        this.ipRefillPeriod = ipRefillPeriod;
+        this.emailCapacity = emailCapacity;
+        this.emailRefillPeriod = emailRefillPeriod;
+        this.store = store;
+        this.resolver = exceptionResolver;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String endpoint = endpointOf(request);
+        long waitNanos = store.tryAcquire(endpoint + '|' + KEY_IP + '|' + request.getRemoteAddr(), ipCapacity, ipRefillPeriod);
+        if (waitNanos > 0) {
+            this.reject(request, response, endpoint, KEY_IP, waitNanos);
+            return;
+        }
+
+        HttpServletRequest target = request;
+        String email;
+        if (endpoint.equals(PASSWORD_RESETS_PREFIX)) {
+            email = UriUtils.decode(request.getRequestURI().substring(PASSWORD_RESETS_PREFIX.length()), StandardCharsets.UTF_8);
+        } else {
+            if (request.getContentLengthLong() > MAX_INSPECTED_BODY_BYTES) {
+                this.refuse(request, response, new RequestBodyTooLargeException(MESSAGE_BODY_TOO_LARGE));
+                return;
+            }
+            CachedBodyHttpServletRequest cachedRequest = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY_BYTES + 1);
+            if (cachedRequest.getPrefix().length > MAX_INSPECTED_BODY_BYTES) {
+                this.refuse(request, response, new RequestBodyTooLargeException(MESSAGE_BODY_TOO_LARGE));
+                return;
+            }
+            email = this.readEmail(cachedRequest.getPrefix());
+            if (email == null || email.indexOf('@') <= 0) {
+                this.refuse(request, response, new InvalidRequestBodyException(MESSAGE_EMAIL_REQUIRED));
+                return;
+            }
+            target = cachedRequest;
+        }
+        if (email != null && email.indexOf('@') > 0) {
+            waitNanos = store.tryAcquire(endpoint + '|' + KEY_EMAIL + '|' + email.trim().toLowerCase(Locale.ROOT), emailCapacity, emailRefillPeriod);
+            if (waitNanos > 0) {
+                this.reject(request, response, endpoint, KEY_EMAIL, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(target, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !"POST".equalsIgnoreCase(request.getMethod()) || endpointOf(request) == null;
+    }
+
+    private static String endpointOf(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.equals("/users/login") || uri.equals("/users/verify/code")) {
+            return uri;
+        }
+        if (uri.startsWith(PASSWORD_RESETS_PREFIX) && uri.length() > PASSWORD_RESETS_PREFIX.length()) {
+            return PASSWORD_RESETS_PREFIX;
+        }
+        return null;
+    }
+
+    /**
+     * Extrai o campo {@code email} do primeiro nível do JSON. Devolve {@code null} se o corpo for inválido, se o campo
+     * faltar ou não for texto, ou se aparecer mais de uma vez.
+     */
+    private String readEmail(byte[] body) {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            String email = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (KEY_EMAIL.equals(field)) {
+                    if (email != null || parser.currentToken() != JsonToken.VALUE_STRING) {
+                        return null;
+                    }
+                    email = parser.getText();
+                }
+                parser.skipChildren();
+            }
+            return token == JsonToken.END_OBJECT ? email : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String endpoint, String key, long waitNanos) {
+        Counter.builder("securecapita.ratelimit.rejected")
+                .tag("endpoint", endpoint)
+                .tag("key", key)
+                .register(meterRegistry)
+                .increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        this.refuse(request, response, new RateLimitExceededException("Too many attempts. Please try again later.", retryAfterSeconds));
+    }
+
+    private void refuse(HttpServletRequest request, HttpServletResponse response, ApiException exception) {
+        resolver.resolveException(request, response, null, exception);
+    }
+}
@@ -18,6 +18,15 @@ public class CustomUserDetails implements UserDetails {
         this.authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(permissions);
     }
 
+    /**
+     * @param user usuário autenticado.
+     * @param authorities authorities já convertidas do papel do usuário (ver {@code RoleCatalog}).
+     */
+    public CustomUserDetails(User user, Collection<? extends GrantedAuthority> authorities) {
+        this.user = user;
+        this.authorities = authorities;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return this.authorities;
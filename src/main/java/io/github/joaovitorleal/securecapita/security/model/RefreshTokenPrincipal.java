@@ -0,0 +1,10 @@
+package io.github.joaovitorleal.securecapita.security.model;
+
+/**
+ * Dados de um refresh token já verificado: subject e identificador ({@code jti}) registrado no store.
+ */
+public record RefreshTokenPrincipal(
+        String subject,
+        String tokenId
+) {
+}
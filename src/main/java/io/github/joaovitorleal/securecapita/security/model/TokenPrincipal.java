@@ -0,0 +1,20 @@
+package io.github.joaovitorleal.securecapita.security.model;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Dados de um JWT já verificado: subject, authorities, instante de expiração e, para a revogação, {@code jti},
+ * sessão ({@code sid}) e instante de emissão. Tokens emitidos antes desses claims trazem {@code null} neles.
+ */
+public record TokenPrincipal(
+        String subject,
+        List<GrantedAuthority> authorities,
+        Instant expiresAt,
+        String tokenId,
+        String sessionId,
+        Instant issuedAt
+) {
+}
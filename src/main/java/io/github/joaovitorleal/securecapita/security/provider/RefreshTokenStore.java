@@ -0,0 +1,213 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.joaovitorleal.securecapita.exception.JwtAuthenticationInvalidException;
+import io.github.joaovitorleal.securecapita.security.crypto.Sha256Hashes;
+import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.security.model.RefreshTokenPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Registro dos refresh tokens emitidos, com rotação a cada uso e revogação da família em caso de reuso.
+ * <p>
+ * Cada token carrega um {@code jti} aleatório; a tabela {@code refresh_tokens} guarda só o SHA-256 dele, a família
+ * (todos os tokens descendentes do mesmo login), o e-mail e a expiração. Usar um token o marca como consumido com um
+ * {@code UPDATE} condicional, atômico entre instâncias, e emite o próximo da mesma família. Um token consumido que volta
+ * a ser apresentado indica vazamento: a família inteira é apagada, os access tokens da sessão ({@code sid} igual à
+ * família) são revogados no {@link TokenRevocationList} e o titular precisa autenticar de novo.
+ * <p>
+ * Um índice Caffeine local guarda família, e-mail e expiração dos tokens recém-emitidos, evitando reler a linha na
+ * rotação; em caso de miss (token emitido por outra instância ou antes de um restart) a linha é consultada. Linhas
+ * vencidas são apagadas periodicamente. No logout, {@link #revoke(String, HttpServletRequest)} só impede novos
+ * refreshes; os access tokens da sessão são revogados pelo chamador com o {@code sid} devolvido.
+ */
+@Component
+@Slf4j
+public class RefreshTokenStore {
+
+    private static final String CACHE_NAME = "refreshTokens";
+    private static final String MESSAGE_TOKEN_INVALID = "Refresh token missing or invalid.";
+    private static final String MESSAGE_TOKEN_REVOKED = "Your session has been revoked. Please log in again.";
+
+    private static final String INSERT_SQL = "INSERT INTO refresh_tokens (token_hash, family_id, user_email, expires_at) VALUES (?, ?, ?, ?)";
+    private static final String CONSUME_SQL = "UPDATE refresh_tokens SET used = TRUE WHERE token_hash = ? AND used = FALSE";
+    private static final String SELECT_SQL = "SELECT family_id, user_email, expires_at FROM refresh_tokens WHERE token_hash = ?";
+    private static final String DELETE_FAMILY_SQL = "DELETE FROM refresh_tokens WHERE family_id = ?";
+    private static final String DELETE_USER_SQL = "DELETE FROM refresh_tokens WHERE user_email = ?";
+    private static final String PURGE_SQL = "DELETE FROM refresh_tokens WHERE expires_at < ? LIMIT 1000";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenProvider tokenProvider;
+    private final TokenRevocationList tokenRevocationList;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+    private final Cache<ByteBuffer, Entry> index;
+
+    public RefreshTokenStore(
+            JdbcTemplate jdbcTemplate,
+            TokenProvider tokenProvider,
+            TokenRevocationList tokenRevocationList,
+            @Value("${jwt.refresh-token.ttl:5d}") Duration ttl,
+            @Value("${jwt.refresh-token.index.maximum-size:100000}") long maximumSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenProvider = tokenProvider;
+        this.tokenRevocationList = tokenRevocationList;
+        this.ttl = ttl;
+        this.index = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new EntryExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.index, CACHE_NAME);
+    }
+
+    /**
+     * Emite um refresh token na família informada; no login, uma família nova, que também vai no {@code sid} do access
+     * token.
+     */
+    public String issue(CustomUserDetails userPrincipal, UUID familyId) {
+        byte[] tokenId = new byte[16];
+        random.nextBytes(tokenId);
+        String jti = Base64.getUrlEncoder().withoutPadding().encodeToString(tokenId);
+        byte[] hash = Sha256Hashes.hash(jti);
+        Instant expiresAt = Instant.now().plus(ttl);
+        String email = userPrincipal.getUsername();
+        jdbcTemplate.update(INSERT_SQL, hash, toBytes(familyId), email, Timestamp.from(expiresAt));
+        index.put(ByteBuffer.wrap(hash), new Entry(familyId, email, expiresAt));
+        return tokenProvider.createRefreshToken(userPrincipal, jti, expiresAt);
+    }
+
+    /**
+     * Consome um refresh token; o chamador deve emitir o próximo com {@link #issue(CustomUserDetails, UUID)} na família
+     * devolvida. Se o token já tiver sido consumido, a família inteira é revogada, junto com os access tokens da sessão.
+     *
+     * @return e-mail do titular e família do token.
+     * @throws JwtAuthenticationInvalidException se o token for inválido, desconhecido, revogado ou reutilizado.
+     */
+    public Session consume(String token, HttpServletRequest request) {
+        RefreshTokenPrincipal principal = tokenProvider.getRefreshPrincipal(token, request);
+        byte[] hash = Sha256Hashes.hash(principal.tokenId());
+        if (jdbcTemplate.update(CONSUME_SQL, (Object) hash) == 0) {
+            Entry entry = this.find(hash);
+            if (entry == null) {
+                throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID);
+            }
+            log.warn("Refresh token reuse detected for {}; revoking its token family and session.", entry.email());
+            this.revokeFamily(entry.familyId());
+            tokenRevocationList.revokeSession(entry.familyId());
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_REVOKED);
+        }
+        Entry entry = index.getIfPresent(ByteBuffer.wrap(hash));
+        index.invalidate(ByteBuffer.wrap(hash));
+        if (entry == null) {
+            entry = this.find(hash);
+        }
+        if (entry == null || !entry.email().equalsIgnoreCase(principal.subject())) {
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID);
+        }
+        return new Session(entry.email(), entry.familyId());
+    }
+
+    /**
+     * Revoga a família do refresh token (logout). Tokens desconhecidos ou já revogados são ignorados.
+     *
+     * @return a família revogada, se o token ainda estava registrado.
+     */
+    public Optional<UUID> revoke(String token, HttpServletRequest request) {
+        RefreshTokenPrincipal principal = tokenProvider.getRefreshPrincipal(token, request);
+        Entry entry = this.find(Sha256Hashes.hash(principal.tokenId()));
+        if (entry == null) {
+            return Optional.empty();
+        }
+        this.revokeFamily(entry.familyId());
+        return Optional.of(entry.familyId());
+    }
+
+    /**
+     * Revoga todos os refresh tokens do usuário, ex.: após a redefinição de senha.
+     */
+    public void revokeAll(String email) {
+        jdbcTemplate.update(DELETE_USER_SQL, email);
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh-token.purge-interval:10m}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now()));
+        if (deleted > 0) {
+            log.debug("Purged {} expired refresh tokens.", deleted);
+        }
+    }
+
+    private void revokeFamily(UUID familyId) {
+        jdbcTemplate.update(DELETE_FAMILY_SQL, (Object) toBytes(familyId));
+    }
+
+    private Entry find(byte[] hash) {
+        List<Entry> entries = jdbcTemplate.query(SELECT_SQL, (rs, rowNum) -> new Entry(
+                toUuid(rs.getBytes("family_id")),
+                rs.getString("user_email"),
+                rs.getTimestamp("expires_at").toInstant()
+        ), (Object) hash);
+        return entries.isEmpty() ? null : entries.getFirst();
+    }
+
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Titular e família de um refresh token consumido.
+     */
+    public record Session(String email, UUID familyId) {
+    }
+
+    private record Entry(UUID familyId, String email, Instant expiresAt) {
+    }
+
+    private static final class EntryExpiry implements Expiry<ByteBuffer, Entry> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Entry value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Entry value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Entry value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
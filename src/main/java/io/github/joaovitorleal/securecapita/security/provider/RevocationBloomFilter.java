@@ -0,0 +1,72 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom de tamanho fixo, sem locks, para as chaves revogadas do {@link TokenRevocationList}.
+ * <p>
+ * Dimensionado para {@code expectedInsertions} chaves com taxa de falso positivo {@code falsePositiveRate}. As
+ * {@code k} posições de cada chave vêm de double hashing sobre um hash de 64 bits (FNV-1a seguido do finalizador do
+ * SplitMix64). Escritas usam CAS por palavra; leituras são apenas {@code k} acessos ao array.
+ */
+final class RevocationBloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    RevocationBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) >>> 6);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount << 6;
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * @param key chave no formato {@code tipo|valor}, ex.: {@code u|user@securecapita.org}.
+     */
+    void put(String key) {
+        long hash1 = hash(key.charAt(0), key.substring(2));
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word = words.get(index);
+            while ((word & mask) == 0 && !words.compareAndSet(index, word, word | mask)) {
+                word = words.get(index);
+            }
+        }
+    }
+
+    /**
+     * Equivalente a consultar {@code kind + '|' + value}, sem concatenar.
+     */
+    boolean mightContain(char kind, String value) {
+        long hash1 = hash(kind, value);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Long.remainderUnsigned(hash1 + i * hash2, bitCount);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hash(char kind, String value) {
+        long hash = (0xCBF29CE484222325L ^ kind) * 0x100000001B3L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
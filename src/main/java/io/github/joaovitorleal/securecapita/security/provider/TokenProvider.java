@@ -6,8 +6,13 @@ import com.auth0.jwt.algorithms.Algorithm;
 import com.auth0.jwt.exceptions.InvalidClaimException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import io.github.joaovitorleal.securecapita.exception.JwtAuthenticationInvalidException;
 import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.security.model.RefreshTokenPrincipal;
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.http.HttpServletRequest;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -25,7 +30,7 @@ import java.time.Instant;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 import static java.lang.System.currentTimeMillis;
 
@@ -37,56 +42,126 @@ public class TokenProvider {
     private static final String ISSUER = "JV_LEAL_DEV";
     private static final String AUDIENCE = "SECURECAPITA_API";
     private static final String AUTHORITIES = "authorities";
-    private static final long ACCESS_TOKEN_EXPIRATION_TIME_MILLIS = 1_800_000L; // 30 minutos
-    private static final long REFRESH_TOKEN_EXPIRATION_TIME_MILLIS = 432_000_000L; // 5 dias
+    private static final String TOKEN_TYPE = "token_type";
+    private static final String TOKEN_TYPE_REFRESH = "refresh";
+    private static final String SESSION_ID = "sid";
+    private static final String ISSUED_AT_MILLIS = "iat_ms";
+    public static final long ACCESS_TOKEN_EXPIRATION_TIME_MILLIS = 1_800_000L; // 30 minutos
 
     private static final String MESSAGE_TOKEN_EXPIRED = "Your session has expired. Please log in again.";
     private static final String MESSAGE_TOKEN_INVALID = "Invalid security token.";
     private static final String MESSAGE_TOKEN_ERROR = "Authentication failed. Please try again.";
 
-    @Value("${jwt.secret}")
-    private String secret;
-
-    public String createAccessToken(CustomUserDetails userPrincipal) {
-        return JWT.create()
+    /*
+     * Algorithm e JWTVerifier são imutáveis e thread-safe: construídos uma única vez na inicialização
+     * e compartilhados por todas as requisições, evitando recriar a chave HMAC-512 a cada token.
+     */
+    private final Algorithm algorithm;
+    private final JWTVerifier verifier;
+    private final Timer signTimer;
+    private final Timer verifyTimer;
+
+    public TokenProvider(@Value("${jwt.secret}") String secret, MeterRegistry meterRegistry) {
+        this.algorithm = Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8));
+        this.verifier = JWT.require(this.algorithm)
                 .withIssuer(ISSUER)
-                .withAudience(AUDIENCE)
-                .withIssuedAt(Date.from(Instant.now()))
-                .withSubject(userPrincipal.getUsername())
-                .withArrayClaim(AUTHORITIES, this.getClaimsFromUser(userPrincipal))
-                .withExpiresAt(new Date(currentTimeMillis() + ACCESS_TOKEN_EXPIRATION_TIME_MILLIS))
-                .sign(Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8)));
+                .build();
+        this.signTimer = Timer.builder("securecapita.jwt")
+                .tag("operation", "sign")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.verifyTimer = Timer.builder("securecapita.jwt")
+                .tag("operation", "verify")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * Assina um access token com {@code jti} próprio e o {@code sid} da sessão, usados pelo {@link TokenRevocationList}.
+     * O {@code iat} padrão tem precisão de segundos; o claim {@code iat_ms} leva o instante de emissão em milissegundos,
+     * para que um token emitido logo após uma revogação, no mesmo segundo, não seja tomado como revogado.
+     *
+     * @param userPrincipal usuário autenticado.
+     * @param sessionId família de refresh tokens do login.
+     */
+    public String createAccessToken(CustomUserDetails userPrincipal, UUID sessionId) {
+        return signTimer.record(() -> {
+            Instant issuedAt = Instant.now();
+            return JWT.create()
+                    .withIssuer(ISSUER)
+                    .withAudience(AUDIENCE)
+                    .withIssuedAt(Date.from(issuedAt))
+                    .withClaim(ISSUED_AT_MILLIS, issuedAt.toEpochMilli())
+                    .withSubject(userPrincipal.getUsername())
+                    .withJWTId(UUID.randomUUID().toString())
+                    .withClaim(SESSION_ID, sessionId.toString())
+                    .withArrayClaim(AUTHORITIES, this.getClaimsFromUser(userPrincipal))
+                    .withExpiresAt(new Date(currentTimeMillis() + ACCESS_TOKEN_EXPIRATION_TIME_MILLIS))
+                    .sign(this.algorithm);
+        });
     }
 
-    public String createRefreshToken(CustomUserDetails userPrincipal) {
-        return JWT.create()
+    /**
+     * Assina um refresh token com o {@code jti} registrado no {@link RefreshTokenStore}.
+     *
+     * @param userPrincipal usuário autenticado.
+     * @param tokenId identificador aleatório do token ({@code jti}).
+     * @param expiresAt expiração registrada no store.
+     */
+    public String createRefreshToken(CustomUserDetails userPrincipal, String tokenId, Instant expiresAt) {
+        return signTimer.record(() -> JWT.create()
                 .withIssuer(ISSUER)
                 .withAudience(AUDIENCE)
                 .withIssuedAt(Date.from(Instant.now()))
                 .withSubject(userPrincipal.getUsername())
-                .withExpiresAt(Date.from(Instant.now().plusMillis(REFRESH_TOKEN_EXPIRATION_TIME_MILLIS)))
-                .sign(Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8)));
+                .withJWTId(tokenId)
+                .withClaim(TOKEN_TYPE, TOKEN_TYPE_REFRESH)
+                .withExpiresAt(Date.from(expiresAt))
+                .sign(this.algorithm));
     }
 
-    public String getSubject(String token, HttpServletRequest request) {
-        try {
-            return this.getJWTVerifier().verify(token).getSubject();
-        } catch (TokenExpiredException e) {
-            request.setAttribute("expiredMessage", e.getMessage());
-            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_EXPIRED, e);
-        } catch (InvalidClaimException e) {
-            request.setAttribute("invalidClaim", e.getMessage());
-            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID, e);
-        } catch (Exception e) {
-            LOGGER.error("Internal error verifying token subjects.", e);
-            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_ERROR, e);
+    /**
+     * Verifica um refresh token e extrai subject e {@code jti}.
+     *
+     * @throws JwtAuthenticationInvalidException se o token estiver expirado, inválido ou não for um refresh token.
+     */
+    public RefreshTokenPrincipal getRefreshPrincipal(String token, HttpServletRequest request) {
+        DecodedJWT decodedJWT = this.verify(token, request);
+        if (!TOKEN_TYPE_REFRESH.equals(decodedJWT.getClaim(TOKEN_TYPE).asString()) || StringUtils.isBlank(decodedJWT.getId())) {
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID);
         }
+        return new RefreshTokenPrincipal(decodedJWT.getSubject(), decodedJWT.getId());
+    }
+
+    /**
+     * Verifica o token uma única vez e extrai subject, authorities e os dados usados na revogação.
+     *
+     * @param token JWT recebido no header Authorization.
+     * @param request requisição corrente.
+     * @return {@link TokenPrincipal} com os dados já validados do token.
+     * @throws JwtAuthenticationInvalidException se o token estiver expirado, inválido, malformado ou for um refresh token.
+     */
+    public TokenPrincipal getPrincipal(String token, HttpServletRequest request) {
+        DecodedJWT decodedJWT = this.verify(token, request);
+        if (TOKEN_TYPE_REFRESH.equals(decodedJWT.getClaim(TOKEN_TYPE).asString())) {
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID);
+        }
+        return new TokenPrincipal(
+                decodedJWT.getSubject(),
+                this.toAuthorities(decodedJWT.getClaim(AUTHORITIES).asArray(String.class)),
+                decodedJWT.getExpiresAtAsInstant(),
+                decodedJWT.getId(),
+                decodedJWT.getClaim(SESSION_ID).asString(),
+                this.issuedAt(decodedJWT)
+        );
+    }
+
+    public String getSubject(String token, HttpServletRequest request) {
+        return this.verify(token, request).getSubject();
     }
 
     public List<GrantedAuthority> getAuthorities(String token) {
-        return Arrays.stream(this.getClaimsFromToken(token))
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+        return this.toAuthorities(this.getClaimsFromToken(token));
     }
 
     public Authentication getAuthentication(String email, List<GrantedAuthority> authorities, HttpServletRequest request) {
@@ -101,13 +176,36 @@ public class TokenProvider {
            if (StringUtils.isBlank(email)) {
                return false;
            }
-           return  !this.isTokenExpired(this.getJWTVerifier(), token);
+           return  !this.isTokenExpired(this.verifier, token);
        } catch (JWTVerificationException e) {
            LOGGER.debug("[isTokenValid] Token validation failed: {}", e.getMessage());
            return false;
        }
     }
 
+    private DecodedJWT verify(String token, HttpServletRequest request) {
+        try {
+            return verifyTimer.record(() -> this.verifier.verify(token));
+        } catch (TokenExpiredException e) {
+            request.setAttribute("expiredMessage", e.getMessage());
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_EXPIRED, e);
+        } catch (InvalidClaimException e) {
+            request.setAttribute("invalidClaim", e.getMessage());
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_INVALID, e);
+        } catch (Exception e) {
+            LOGGER.error("Internal error verifying token subjects.", e);
+            throw new JwtAuthenticationInvalidException(MESSAGE_TOKEN_ERROR, e);
+        }
+    }
+
+    /**
+     * Instante de emissão em milissegundos ({@code iat_ms}); tokens emitidos antes desse claim usam o {@code iat}.
+     */
+    private Instant issuedAt(DecodedJWT decodedJWT) {
+        Long issuedAtMillis = decodedJWT.getClaim(ISSUED_AT_MILLIS).asLong();
+        return issuedAtMillis != null ? Instant.ofEpochMilli(issuedAtMillis) : decodedJWT.getIssuedAtAsInstant();
+    }
+
     private String[] getClaimsFromUser(CustomUserDetails userPrincipal) {
         return userPrincipal.getAuthorities()
                 .stream()
@@ -115,9 +213,18 @@ public class TokenProvider {
                 .toArray(String[]::new);
     }
 
+    private List<GrantedAuthority> toAuthorities(String[] claims) {
+        if (claims == null || claims.length == 0) {
+            return List.of();
+        }
+        return Arrays.stream(claims)
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
     private String[] getClaimsFromToken(String token) {
         try {
-            return this.getJWTVerifier().verify(token)
+            return this.verifier.verify(token)
                     .getClaim(AUTHORITIES)
                     .asArray(String.class);
         } catch (JWTVerificationException e) {
@@ -126,12 +233,6 @@ public class TokenProvider {
         }
     }
 
-    private JWTVerifier getJWTVerifier() {
-        return JWT.require(Algorithm.HMAC512(secret.getBytes(StandardCharsets.UTF_8)))
-                .withIssuer(ISSUER)
-                .build();
-    }
-
     @Deprecated(forRemoval = true)
     private boolean isTokenExpired(JWTVerifier verifier, String token) {
         Date expiration = verifier.verify(token).getExpiresAt();
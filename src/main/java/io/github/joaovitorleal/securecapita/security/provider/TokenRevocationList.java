@@ -0,0 +1,193 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revogação de access tokens, consultada pelo {@code CustomAuthorizationFilter} a cada requisição.
+ * <p>
+ * Uma revogação atinge todos os tokens emitidos até o instante dela com a mesma chave: a sessão ({@code sid}, a família
+ * de refresh tokens do login) no logout, ou o usuário ({@code sub}) na redefinição de senha e na exclusão da conta.
+ * A tabela {@code token_revocations} é a fonte de verdade entre instâncias; cada nó mantém uma cópia exata em memória
+ * (chave → revogação mais recente) e, na frente dela, filtros de Bloom. O caminho comum, token não revogado, é só a
+ * consulta aos filtros, sem lock, alocação ou acesso ao banco; a cópia exata só é lida quando um filtro acusa a chave.
+ * <p>
+ * Uma revogação só precisa valer até os tokens atingidos expirarem, ou seja, por uma vida de access token. Os filtros
+ * são geracionais: a cada vida de token um filtro novo assume com apenas as revogações ainda válidas, e o anterior segue
+ * sendo consultado até a troca seguinte (cobre inserções concorrentes à troca). Assim bits de revogações vencidas não se
+ * acumulam e a taxa de falso positivo se mantém. Revogações de outros nós chegam pela consulta periódica às linhas
+ * recentes da tabela, como no {@code UserCacheInvalidationBroadcaster}.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList {
+
+    private static final char KIND_SUBJECT = 'u';
+    private static final char KIND_SESSION = 's';
+    private static final Duration TOKEN_LIFETIME = Duration.ofMillis(TokenProvider.ACCESS_TOKEN_EXPIRATION_TIME_MILLIS);
+
+    private static final String INSERT_SQL = "INSERT INTO token_revocations (revocation_key, revoked_at, expires_at, created_at) VALUES (?, ?, ?, NOW(3))";
+    private static final String SELECT_ACTIVE_SQL = "SELECT id, revocation_key, revoked_at FROM token_revocations WHERE expires_at > ?";
+    private static final String SELECT_RECENT_SQL = """
+            SELECT id, revocation_key, revoked_at FROM token_revocations
+            WHERE created_at >= TIMESTAMPADD(MICROSECOND, -?, NOW(3))
+            ORDER BY id
+            """;
+    private static final String PURGE_SQL = "DELETE FROM token_revocations WHERE expires_at < ? LIMIT 1000";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long expectedRevocations;
+    private final double falsePositiveRate;
+    private final Duration lookback;
+    private final Map<String, Instant> revokedAt = new ConcurrentHashMap<>();
+    private final Map<Long, Long> processedIds = new HashMap<>();
+    private volatile RevocationBloomFilter current;
+    private volatile RevocationBloomFilter previous;
+    private boolean loaded;
+    private long lastSuccessfulPollNanos;
+
+    public TokenRevocationList(
+            JdbcTemplate jdbcTemplate,
+            @Value("${jwt.revocation.expected-revocations:100000}") long expectedRevocations,
+            @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${jwt.revocation.lookback:10s}") Duration lookback
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.lookback = lookback;
+        this.current = new RevocationBloomFilter(expectedRevocations, falsePositiveRate);
+        this.previous = new RevocationBloomFilter(expectedRevocations, falsePositiveRate);
+    }
+
+    /**
+     * Compara em milissegundos o instante de emissão do token ({@code iat_ms}) com o da revogação, também truncado em
+     * milissegundos como fica gravado na tabela; um token emitido no mesmo milissegundo da revogação conta como revogado.
+     *
+     * @return true se o token foi emitido antes de uma revogação do seu usuário ou da sua sessão.
+     */
+    public boolean isRevoked(TokenPrincipal principal) {
+        return this.isRevoked(KIND_SUBJECT, principal.subject(), principal.issuedAt())
+                || (principal.sessionId() != null && this.isRevoked(KIND_SESSION, principal.sessionId(), principal.issuedAt()));
+    }
+
+    /**
+     * Revoga os access tokens da sessão (logout).
+     *
+     * @param sessionId família de refresh tokens do login, presente no claim {@code sid}.
+     */
+    public void revokeSession(UUID sessionId) {
+        this.revoke(key(KIND_SESSION, sessionId.toString()));
+    }
+
+    /**
+     * Revoga todos os access tokens já emitidos para o usuário.
+     *
+     * @param email e-mail do usuário (qualquer caixa).
+     */
+    public void revokeSubject(String email) {
+        this.revoke(key(KIND_SUBJECT, email.toLowerCase(Locale.ROOT)));
+    }
+
+    /**
+     * Carrega todas as revogações ainda válidas; feito na primeira consulta periódica e quando as consultas ficam
+     * atrasadas mais que {@code lookback}.
+     */
+    public synchronized void load() {
+        jdbcTemplate.query(SELECT_ACTIVE_SQL, rs -> {
+            processedIds.put(rs.getLong("id"), System.nanoTime());
+            this.apply(rs.getString("revocation_key"), rs.getTimestamp("revoked_at").toInstant());
+        }, Timestamp.from(Instant.now()));
+        lastSuccessfulPollNanos = System.nanoTime();
+        loaded = true;
+        log.info("Token revocation list loaded with {} active revocations.", revokedAt.size());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.poll-interval:2s}")
+    public synchronized void poll() {
+        long now = System.nanoTime();
+        try {
+            if (!loaded) {
+                this.load();
+                return;
+            }
+            if (now - lastSuccessfulPollNanos > lookback.toNanos()) {
+                log.warn("Token revocations not polled for more than {}; reloading all active revocations.", lookback);
+                this.load();
+                return;
+            }
+            jdbcTemplate.query(SELECT_RECENT_SQL, rs -> {
+                if (processedIds.putIfAbsent(rs.getLong("id"), now) == null) {
+                    this.apply(rs.getString("revocation_key"), rs.getTimestamp("revoked_at").toInstant());
+                }
+            }, lookback.toNanos() / 1_000);
+            lastSuccessfulPollNanos = now;
+        } catch (RuntimeException e) {
+            log.warn("Could not poll token revocations: {}", e.getMessage());
+        }
+        processedIds.values().removeIf(seenAt -> now - seenAt > lookback.multipliedBy(2).toNanos());
+    }
+
+    /**
+     * Troca a geração dos filtros a cada vida de access token e descarta revogações cujos tokens já expiraram.
+     */
+    @Scheduled(fixedRate = TokenProvider.ACCESS_TOKEN_EXPIRATION_TIME_MILLIS, initialDelay = TokenProvider.ACCESS_TOKEN_EXPIRATION_TIME_MILLIS)
+    public synchronized void rotate() {
+        Instant threshold = Instant.now().minus(TOKEN_LIFETIME);
+        revokedAt.values().removeIf(revoked -> revoked.isBefore(threshold));
+        RevocationBloomFilter next = new RevocationBloomFilter(expectedRevocations, falsePositiveRate);
+        for (String key : revokedAt.keySet()) {
+            next.put(key);
+        }
+        previous = current;
+        current = next;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.purge-interval:10m}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now()));
+        if (deleted > 0) {
+            log.debug("Purged {} expired token revocations.", deleted);
+        }
+    }
+
+    private boolean isRevoked(char kind, String value, Instant issuedAt) {
+        if (!current.mightContain(kind, value) && !previous.mightContain(kind, value)) {
+            return false;
+        }
+        Instant revoked = revokedAt.get(key(kind, value));
+        return revoked != null && (issuedAt == null || !issuedAt.isAfter(revoked));
+    }
+
+    /**
+     * Registra a revogação para os demais nós (na transação corrente, se houver) e a aplica localmente de imediato.
+     */
+    private void revoke(String key) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        jdbcTemplate.update(INSERT_SQL, key, Timestamp.from(now), Timestamp.from(now.plus(TOKEN_LIFETIME)));
+        this.apply(key, now);
+    }
+
+    private void apply(String key, Instant revoked) {
+        revokedAt.merge(key, revoked, (existing, incoming) -> existing.isAfter(incoming) ? existing : incoming);
+        current.put(key);
+    }
+
+    private static String key(char kind, String value) {
+        return kind + "|" + value;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Cache limitado de tokens já verificados pelo {@link TokenProvider}.
+ * <p>
+ * A chave é o segmento de assinatura do JWT; cada entrada guarda o conteúdo assinado (header.payload) para que um
+ * token com a mesma assinatura e conteúdo diferente nunca reaproveite o principal em cache. As entradas expiram
+ * exatamente no {@code exp} do token. Métricas de hit/miss/eviction são publicadas como {@code cache.*{cache=verifiedTokens}}.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "verifiedTokens";
+
+    private final Cache<String, CachedToken> cache;
+
+    public VerifiedTokenCache(
+            @Value("${jwt.cache.maximum-size:10000}") long maximumSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o principal em cache ou delega a verificação completa ao {@code verifier}, armazenando o resultado.
+     *
+     * @param token JWT recebido no header Authorization.
+     * @param verifier verificação completa do token, executada apenas em caso de miss.
+     * @return {@link TokenPrincipal} do token.
+     */
+    public TokenPrincipal get(String token, Function<String, TokenPrincipal> verifier) {
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart < 0) {
+            return verifier.apply(token);
+        }
+        String signature = token.substring(signatureStart + 1);
+        CachedToken cachedToken = cache.getIfPresent(signature);
+        if (cachedToken != null && cachedToken.matches(token, signatureStart)) {
+            return cachedToken.principal();
+        }
+
+        TokenPrincipal principal = verifier.apply(token);
+        if (principal.expiresAt() != null) {
+            cache.put(signature, new CachedToken(token.substring(0, signatureStart), principal));
+        }
+        return principal;
+    }
+
+    private record CachedToken(String signedContent, TokenPrincipal principal) {
+
+        private boolean matches(String token, int signatureStart) {
+            return signatureStart == signedContent.length() && token.regionMatches(0, signedContent, 0, signatureStart);
+        }
+    }
+
+    private static final class TokenExpiry implements Expiry<String, CachedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.principal().expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
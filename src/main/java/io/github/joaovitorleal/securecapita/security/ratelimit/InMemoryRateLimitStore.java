@@ -0,0 +1,98 @@
+package io.github.joaovitorleal.securecapita.security.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket por chave, sem locks, restrito à instância: cada balde comporta {@code capacity} fichas e é
+ * reabastecido por completo em {@code refillPeriod} (uma ficha a cada {@code refillPeriod / capacity}).
+ * <p>
+ * O balde é guardado como um único {@code long} (algoritmo GCRA): o instante teórico em que ele voltaria a estar cheio.
+ * Consumir uma ficha é um compare-and-set sobre esse valor, então chaves diferentes nunca disputam o mesmo lock e a
+ * mesma chave é resolvida por CAS. Os baldes ficam em um cache Caffeine que expira cada um após {@code refillPeriod}
+ * sem acesso: um balde ocioso por esse tempo já estaria cheio, então descartá-lo não muda o resultado.
+ * O número de chaves é limitado por {@code security.rate-limit.max-tracked-keys}.
+ */
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Ticker ticker;
+    private final Cache<String, Bucket> buckets;
+
+    @Autowired
+    public InMemoryRateLimitStore(@Value("${security.rate-limit.max-tracked-keys:100000}") long maximumKeys) {
+        this(maximumKeys, Ticker.systemTicker());
+    }
+
+    InMemoryRateLimitStore(long maximumKeys, Ticker ticker) {
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfter(new Expiry<String, Bucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, Bucket bucket, long currentTime) {
+                        return bucket.refillPeriodNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Bucket bucket, long currentTime, long currentDuration) {
+                        return bucket.refillPeriodNanos;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Bucket bucket, long currentTime, long currentDuration) {
+                        return bucket.refillPeriodNanos;
+                    }
+                })
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, Duration refillPeriod) {
+        if (capacity < 1 || refillPeriod.isNegative() || refillPeriod.isZero()) {
+            throw new IllegalArgumentException("Rate limit capacity and refill period must be positive.");
+        }
+        long refillPeriodNanos = refillPeriod.toNanos();
+        long emissionIntervalNanos = refillPeriodNanos / capacity;
+        AtomicLong fullAt = buckets.get(key, k -> new Bucket(ticker.read(), refillPeriodNanos)).fullAt;
+        while (true) {
+            long now = ticker.read();
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + emissionIntervalNanos;
+            long overflow = next - now - refillPeriodNanos;
+            if (overflow > 0) {
+                return overflow;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void reset(String key) {
+        buckets.invalidate(key);
+    }
+
+    private static final class Bucket {
+
+        private final AtomicLong fullAt;
+        private final long refillPeriodNanos;
+
+        private Bucket(long fullAt, long refillPeriodNanos) {
+            this.fullAt = new AtomicLong(fullAt);
+            this.refillPeriodNanos = refillPeriodNanos;
+        }
+    }
+}
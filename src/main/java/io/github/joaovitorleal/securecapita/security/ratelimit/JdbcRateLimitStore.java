@@ -0,0 +1,260 @@
+package io.github.joaovitorleal.securecapita.security.ratelimit;
+
+import io.github.joaovitorleal.securecapita.security.crypto.Sha256Hashes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contadores de tentativas compartilhados por todas as instâncias através da tabela {@code rate_limit_counters}.
+ * <p>
+ * Cada chave conta tentativas em janelas fixas de {@code refillPeriod}, alinhadas ao relógio de parede (todas as
+ * instâncias enxergam a mesma janela); cabem {@code capacity} tentativas por janela. Para não ir ao banco a cada
+ * requisição, as tentativas são pré-agregadas localmente: uma tentativa é aceita se o total global conhecido mais as
+ * tentativas locais ainda não enviadas ficar abaixo de {@code capacity}. A cada {@code security.rate-limit.jdbc.sync-interval}
+ * as tentativas locais são somadas no banco com um upsert atômico ({@code hits = hits + VALUES(hits)}) e o total global
+ * de cada chave ativa é relido.
+ * <p>
+ * O limite é aproximado: entre duas sincronizações cada instância só conhece as próprias tentativas, então no pior caso
+ * uma chave aceita até {@code capacity} × número de instâncias dentro de um intervalo de sincronização. Como em toda
+ * janela fixa, rajadas na virada da janela podem chegar a {@code 2 × capacity}. Se o banco falhar, as tentativas locais
+ * são mantidas e reenviadas na próxima sincronização; enquanto isso o limite vale por instância.
+ * <p>
+ * A chave (que pode conter um e-mail arbitrário do corpo da requisição) é gravada como SHA-256, com tamanho fixo.
+ * Se ainda assim uma linha do lote for recusada pelo banco, as demais são gravadas uma a uma e a recusada passa a
+ * valer só localmente até a janela acabar.
+ * <p>
+ * O número de chaves em memória é limitado por {@code security.rate-limit.max-tracked-keys}. Atingido o limite, as
+ * tentativas de chaves novas são contadas direto no banco (leitura do total e upsert, sem pré-agregação), com o mesmo
+ * resultado de uma chave acompanhada; encher o limite com chaves descartáveis só encarece essas tentativas, não recusa
+ * clientes legítimos nem conta falhas que não aconteceram. A sincronização seguinte descarta as chaves sem tentativas
+ * desde a anterior. Uma chave descartada volta com o total global zerado até ser relida, como uma chave nova; por isso
+ * o descarte só acontece sob essa pressão, e não a cada sincronização.
+ */
+@Component
+@ConditionalOnProperty(name = "security.rate-limit.store", havingValue = "jdbc")
+@Slf4j
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final int READ_BATCH_SIZE = 500;
+    private static final String UPSERT_SQL = """
+            INSERT INTO rate_limit_counters (bucket_key, window_start, hits, expires_at)
+            VALUES (:key, :windowStart, :hits, :expiresAt)
+            ON DUPLICATE KEY UPDATE hits = hits + VALUES(hits)
+            """;
+    private static final String SELECT_WINDOW_HITS_SQL = "SELECT hits FROM rate_limit_counters WHERE bucket_key = :key AND window_start = :windowStart";
+    private static final String SELECT_HITS_SQL = "SELECT bucket_key, window_start, hits FROM rate_limit_counters WHERE bucket_key IN (:keyHashes)";
+    private static final String DELETE_SQL = "DELETE FROM rate_limit_counters WHERE bucket_key = :key";
+    private static final String PURGE_SQL = "DELETE FROM rate_limit_counters WHERE expires_at < :now LIMIT 1000";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final long maximumKeys;
+    private final ConcurrentMap<String, LocalWindow> windows = new ConcurrentHashMap<>();
+
+    public JdbcRateLimitStore(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            @Value("${security.rate-limit.max-tracked-keys:100000}") long maximumKeys
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maximumKeys = maximumKeys;
+    }
+
+    @Override
+    public long tryAcquire(String key, int capacity, Duration refillPeriod) {
+        long periodMillis = refillPeriod.toMillis();
+        if (capacity < 1 || periodMillis < 1) {
+            throw new IllegalArgumentException("Rate limit capacity and refill period must be positive.");
+        }
+        long now = System.currentTimeMillis();
+        long windowStart = now - Math.floorMod(now, periodMillis);
+        LocalWindow window = windows.get(key);
+        if (window == null && windows.size() >= maximumKeys) {
+            return this.tryAcquireUntracked(key, capacity, windowStart, windowStart + periodMillis, now);
+        }
+        if (window == null || window.start < windowStart) {
+            window = windows.compute(key, (k, current) -> current == null || current.start < windowStart
+                    ? new LocalWindow(current == null ? Sha256Hashes.hash(k) : current.keyHash, windowStart, windowStart + periodMillis)
+                    : current);
+        }
+        window.touched = true;
+        while (true) {
+            int pending = window.pending.get();
+            if (window.global + window.inFlight.get() + pending >= capacity) {
+                return TimeUnit.MILLISECONDS.toNanos(window.end - now);
+            }
+            if (window.pending.compareAndSet(pending, pending + 1)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Conta a tentativa de uma chave que não cabe mais em memória direto no banco. Se o banco falhar, a tentativa é
+     * aceita: sem o total não há como afirmar que a cota acabou.
+     */
+    private long tryAcquireUntracked(String key, int capacity, long windowStart, long windowEnd, long now) {
+        Map<String, Object> row = Map.of("key", Sha256Hashes.hash(key), "windowStart", windowStart, "hits", 1, "expiresAt", windowEnd);
+        try {
+            List<Integer> hits = jdbcTemplate.queryForList(SELECT_WINDOW_HITS_SQL, row, Integer.class);
+            if (!hits.isEmpty() && hits.getFirst() >= capacity) {
+                return TimeUnit.MILLISECONDS.toNanos(windowEnd - now);
+            }
+            jdbcTemplate.update(UPSERT_SQL, row);
+        } catch (RuntimeException e) {
+            log.warn("Could not count untracked rate limit key: {}", e.getMessage());
+        }
+        return 0;
+    }
+
+    @Override
+    public void reset(String key) {
+        windows.remove(key);
+        jdbcTemplate.update(DELETE_SQL, Map.of("key", Sha256Hashes.hash(key)));
+    }
+
+    /**
+     * Envia as tentativas locais pendentes e relê o total global das chaves com janela ativa nesta instância.
+     */
+    @Scheduled(fixedDelayString = "${security.rate-limit.jdbc.sync-interval:1s}")
+    public synchronized void sync() {
+        long now = System.currentTimeMillis();
+        windows.values().removeIf(window -> window.end <= now);
+        if (windows.size() >= maximumKeys) {
+            windows.values().removeIf(window -> !window.touched && window.pending.get() == 0);
+        }
+        windows.values().forEach(window -> window.touched = false);
+
+        Map<String, LocalWindow> active = new HashMap<>(windows);
+        Map<LocalWindow, Integer> flushed = new HashMap<>();
+        active.values().forEach(window -> {
+            int hits = window.pending.getAndSet(0);
+            if (hits > 0) {
+                window.inFlight.addAndGet(hits);
+                flushed.put(window, hits);
+            }
+        });
+
+        if (!flushed.isEmpty()) {
+            try {
+                this.upsert(flushed);
+            } catch (RuntimeException e) {
+                log.warn("Could not sync rate limit counters; keeping {} keys local until the next attempt: {}", flushed.size(), e.getMessage());
+                flushed.forEach((window, hits) -> {
+                    window.pending.addAndGet(hits);
+                    window.inFlight.addAndGet(-hits);
+                });
+                return;
+            }
+        }
+
+        Map<ByteBuffer, String> keysByHash = new HashMap<>();
+        active.forEach((key, window) -> keysByHash.put(ByteBuffer.wrap(window.keyHash), key));
+        Map<String, Integer> globalHits = new HashMap<>();
+        try {
+            List<byte[]> keyHashes = active.values().stream().map(window -> window.keyHash).toList();
+            for (int from = 0; from < keyHashes.size(); from += READ_BATCH_SIZE) {
+                List<byte[]> chunk = keyHashes.subList(from, Math.min(from + READ_BATCH_SIZE, keyHashes.size()));
+                jdbcTemplate.query(SELECT_HITS_SQL, Map.of("keyHashes", chunk), rs -> {
+                    String key = keysByHash.get(ByteBuffer.wrap(rs.getBytes("bucket_key")));
+                    if (key != null && active.get(key).start == rs.getLong("window_start")) {
+                        globalHits.put(key, rs.getInt("hits"));
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not read rate limit counters: {}", e.getMessage());
+            flushed.forEach((window, hits) -> {
+                window.global += hits;
+                window.inFlight.addAndGet(-hits);
+            });
+            return;
+        }
+        active.forEach((key, window) -> {
+            window.global = globalHits.getOrDefault(key, 0) + window.localOnly;
+            Integer hits = flushed.get(window);
+            if (hits != null) {
+                window.inFlight.addAndGet(-hits);
+            }
+        });
+    }
+
+    /**
+     * Soma as tentativas no banco em lote. Se o banco recusar alguma linha, grava as linhas uma a uma para que só a
+     * recusada fique de fora; ela é removida de {@code flushed} e suas tentativas passam a contar apenas localmente.
+     */
+    private void upsert(Map<LocalWindow, Integer> flushed) {
+        List<Map<String, Object>> batch = new ArrayList<>(flushed.size());
+        flushed.forEach((window, hits) -> batch.add(row(window, hits)));
+        try {
+            jdbcTemplate.batchUpdate(UPSERT_SQL, SqlParameterSourceUtils.createBatch(batch));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Rate limit counter batch rejected, retrying {} rows one by one: {}", batch.size(), e.getMessage());
+            flushed.entrySet().removeIf(entry -> {
+                LocalWindow window = entry.getKey();
+                int hits = entry.getValue();
+                try {
+                    jdbcTemplate.update(UPSERT_SQL, row(window, hits));
+                    return false;
+                } catch (DataIntegrityViolationException rejected) {
+                    log.warn("Rate limit counter rejected; counting its hits locally: {}", rejected.getMessage());
+                    window.localOnly += hits;
+                    window.global += hits;
+                    window.inFlight.addAndGet(-hits);
+                    return true;
+                }
+            });
+        }
+    }
+
+    private static Map<String, Object> row(LocalWindow window, int hits) {
+        return Map.of("key", window.keyHash, "windowStart", window.start, "hits", hits, "expiresAt", window.end);
+    }
+
+    @Scheduled(fixedDelayString = "${security.rate-limit.jdbc.purge-interval:10m}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, Map.of("now", System.currentTimeMillis()));
+        if (deleted > 0) {
+            log.debug("Purged {} expired rate limit counters.", deleted);
+        }
+    }
+
+    /**
+     * Estado local de uma chave na janela corrente. {@code global} só é escrito pela sincronização; {@code inFlight}
+     * guarda as tentativas já enviadas ao banco mas ainda não refletidas em {@code global}. {@code keyHash} é a chave
+     * gravada em {@code bucket_key}; {@code localOnly} soma as tentativas que o banco recusou; {@code touched} marca
+     * tentativas desde a última sincronização.
+     */
+    private static final class LocalWindow {
+
+        private final byte[] keyHash;
+        private final long start;
+        private final long end;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile int global;
+        private int localOnly;
+        private volatile boolean touched = true;
+
+        private LocalWindow(byte[] keyHash, long start, long end) {
+            this.keyHash = keyHash;
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
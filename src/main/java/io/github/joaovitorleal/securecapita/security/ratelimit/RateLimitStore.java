@@ -0,0 +1,30 @@
+package io.github.joaovitorleal.securecapita.security.ratelimit;
+
+import java.time.Duration;
+
+/**
+ * Armazenamento dos contadores de tentativas usados pelo {@code RateLimitFilter} e pelo bloqueio automático de contas.
+ * <p>
+ * A implementação é escolhida por {@code security.rate-limit.store}: {@code memory} ({@link InMemoryRateLimitStore},
+ * padrão) mantém os contadores apenas na instância; {@code jdbc} ({@link JdbcRateLimitStore}) os compartilha entre
+ * todas as instâncias pelo MySQL.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Registra uma tentativa na chave se ainda houver cota. Tentativas recusadas não consomem cota.
+     *
+     * @param key identificador do contador, ex.: endpoint + IP ou e-mail.
+     * @param capacity número de tentativas permitidas em {@code refillPeriod}.
+     * @param refillPeriod período em que a cota inteira é recuperada.
+     * @return {@code 0} se a tentativa foi aceita; caso contrário, quantos nanossegundos faltam para haver cota. Um valor
+     * diferente de zero sempre significa cota esgotada, nunca falta de espaço no armazenamento: o bloqueio de contas
+     * trata esse valor como falhas acima do limite.
+     */
+    long tryAcquire(String key, int capacity, Duration refillPeriod);
+
+    /**
+     * Descarta o contador da chave, devolvendo a cota inteira.
+     */
+    void reset(String key);
+}
@@ -3,18 +3,26 @@ package io.github.joaovitorleal.securecapita.security.service;
 import io.github.joaovitorleal.securecapita.domain.User;
 import io.github.joaovitorleal.securecapita.repository.UserJpaRepository;
 import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.service.RoleCatalog;
+import io.github.joaovitorleal.securecapita.service.UserSnapshotCache;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserJpaRepository userJpaRepository;
+    private final RoleCatalog roleCatalog;
+    private final UserSnapshotCache userSnapshotCache;
 
-    public CustomUserDetailsService(UserJpaRepository userJpaRepository) {
+    public CustomUserDetailsService(UserJpaRepository userJpaRepository, RoleCatalog roleCatalog, UserSnapshotCache userSnapshotCache) {
         this.userJpaRepository = userJpaRepository;
+        this.roleCatalog = roleCatalog;
+        this.userSnapshotCache = userSnapshotCache;
     }
 
     /**
@@ -24,8 +32,25 @@ public class CustomUserDetailsService implements UserDetailsService {
      */
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userJpaRepository.findByEmail(username)
+        User user = userSnapshotCache.get(username, userJpaRepository::findByEmail)
                 .orElseThrow(() -> new UsernameNotFoundException(username));
-        return new CustomUserDetails(user);
+        return new CustomUserDetails(user, roleCatalog.authoritiesOf(user.getRole()));
+    }
+
+    /**
+     * Regrava o hash da senha com o algoritmo/custo alvo após um login bem-sucedido.
+     *
+     * @param user usuário autenticado.
+     * @param newPassword novo hash, já com o prefixo do algoritmo.
+     * @return {@link CustomUserDetails} com o hash atualizado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userJpaRepository.updatePasswordByEmail(user.getUsername(), newPassword);
+        userSnapshotCache.invalidate(user.getUsername());
+        User updatedUser = ((CustomUserDetails) user).getUser();
+        updatedUser.setPassword(newPassword);
+        return new CustomUserDetails(updatedUser, user.getAuthorities());
     }
 }
@@ -0,0 +1,91 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Ring buffer limitado, sem locks, com vários produtores e um único consumidor.
+ * <p>
+ * Cada posição tem um número de sequência: o produtor reserva a posição com um CAS no {@code tail} e publica o elemento
+ * avançando a sequência; o consumidor só lê posições já publicadas. {@link #offer(Object)} nunca bloqueia: com o buffer
+ * cheio, retorna {@code false}.
+ */
+final class AuditRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+
+    AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(2, requestedCapacity - 1) << 1);
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Insere o elemento; seguro para várias threads.
+     *
+     * @return false se o buffer estiver cheio.
+     */
+    boolean offer(E element) {
+        long position;
+        int index;
+        while (true) {
+            position = tail.get();
+            index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+        }
+        elements.lazySet(index, element);
+        sequences.lazySet(index, position + 1);
+        return true;
+    }
+
+    /**
+     * Move até {@code maxElements} elementos para {@code target}. Apenas uma thread pode consumir.
+     *
+     * @return quantidade de elementos movidos.
+     */
+    int drainTo(List<? super E> target, int maxElements) {
+        long position = head;
+        int drained = 0;
+        while (drained < maxElements) {
+            int index = (int) (position & mask);
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            target.add(elements.get(index));
+            elements.lazySet(index, null);
+            sequences.lazySet(index, position + mask + 1);
+            position++;
+            drained++;
+        }
+        head = position;
+        return drained;
+    }
+
+    /**
+     * Quantidade aproximada de elementos no buffer.
+     */
+    int size() {
+        return (int) Math.max(0, Math.min(tail.get() - head, mask + 1));
+    }
+}
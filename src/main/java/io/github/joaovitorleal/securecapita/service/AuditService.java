@@ -0,0 +1,187 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.github.joaovitorleal.securecapita.domain.enums.EventType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Trilha de auditoria assíncrona gravada em {@code user_events}.
+ * <p>
+ * {@link #publish(EventType, String)} apenas coloca o evento em um {@link AuditRingBuffer} sem locks e retorna; com o
+ * buffer cheio o evento é descartado (métrica {@code securecapita.audit.dropped}), nunca bloqueando a requisição.
+ * Uma thread dedicada drena o buffer e grava em lotes JDBC quando o lote atinge {@code batch-size} ou quando o evento
+ * mais antigo pendente completa {@code flush-interval}. Os ids da tabela {@code events} ficam em cache por tipo. No
+ * encerramento do contexto, o buffer é drenado e gravado antes de o pool de conexões ser fechado.
+ */
+@Service
+@Slf4j
+public class AuditService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO user_events (user_id, event_id, device, ip_address, created_at)
+            SELECT u.id, ?, ?, ?, ? FROM users u WHERE u.email = ?
+            """;
+    private static final int DEVICE_MAX_LENGTH = 100;
+    private static final int IP_ADDRESS_MAX_LENGTH = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final Duration flushInterval;
+    private final Duration shutdownTimeout;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final Thread writer;
+    private volatile Map<EventType, Long> eventIds;
+    private volatile boolean running = true;
+
+    public AuditService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${audit.buffer-capacity:8192}") int bufferCapacity,
+            @Value("${audit.batch-size:200}") int batchSize,
+            @Value("${audit.flush-interval:1s}") Duration flushInterval,
+            @Value("${audit.shutdown-timeout:10s}") Duration shutdownTimeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new AuditRingBuffer<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.flushInterval = flushInterval;
+        this.shutdownTimeout = shutdownTimeout;
+        this.dropped = Counter.builder("securecapita.audit.dropped").register(meterRegistry);
+        this.written = Counter.builder("securecapita.audit.written").register(meterRegistry);
+        this.failed = Counter.builder("securecapita.audit.failed").register(meterRegistry);
+        Gauge.builder("securecapita.audit.buffer", buffer, AuditRingBuffer::size).register(meterRegistry);
+        this.writer = Thread.ofPlatform().name("AuditWriter").daemon(true).unstarted(this::writeLoop);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.start();
+    }
+
+    /**
+     * Registra um evento para o usuário com o e-mail informado, capturando IP e User-Agent da requisição corrente.
+     * Nunca bloqueia; eventos de e-mails inexistentes são ignorados na gravação.
+     *
+     * @param type tipo do evento.
+     * @param email e-mail do usuário.
+     */
+    public void publish(EventType type, String email) {
+        if (email == null) {
+            return;
+        }
+        String device = null;
+        String ipAddress = null;
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            device = truncate(request.getHeader("User-Agent"), DEVICE_MAX_LENGTH);
+            ipAddress = truncate(request.getRemoteAddr(), IP_ADDRESS_MAX_LENGTH);
+        }
+        if (!buffer.offer(new AuditEvent(type, email.toLowerCase(), device, ipAddress, LocalDateTime.now()))) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(shutdownTimeout.toMillis());
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not finish within {}; {} events may be lost.", shutdownTimeout, buffer.size());
+        }
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> pending = new ArrayList<>(batchSize);
+        long oldestPendingNanos = 0;
+        while (running) {
+            int before = pending.size();
+            buffer.drainTo(pending, batchSize - pending.size());
+            if (before == 0 && !pending.isEmpty()) {
+                oldestPendingNanos = System.nanoTime();
+            }
+            boolean full = pending.size() >= batchSize;
+            boolean due = !pending.isEmpty() && System.nanoTime() - oldestPendingNanos >= flushInterval.toNanos();
+            if (full || due) {
+                this.flush(pending);
+            } else {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        do {
+            buffer.drainTo(pending, batchSize - pending.size());
+            this.flush(pending);
+        } while (buffer.size() > 0);
+    }
+
+    private void flush(List<AuditEvent> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            Map<EventType, Long> ids = this.eventIds();
+            List<Object[]> rows = new ArrayList<>(pending.size());
+            for (AuditEvent event : pending) {
+                Long eventId = ids.get(event.type());
+                if (eventId == null) {
+                    log.warn("Audit event type {} missing from the events table; event discarded.", event.type());
+                    continue;
+                }
+                rows.add(new Object[]{eventId, event.device(), event.ipAddress(), Timestamp.valueOf(event.createdAt()), event.email()});
+            }
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            written.increment(rows.size());
+        } catch (RuntimeException e) {
+            failed.increment(pending.size());
+            log.error("Failed to write {} audit events: {}", pending.size(), e.getMessage());
+        } finally {
+            pending.clear();
+        }
+    }
+
+    private Map<EventType, Long> eventIds() {
+        Map<EventType, Long> ids = this.eventIds;
+        if (ids == null) {
+            Map<EventType, Long> loaded = new EnumMap<>(EventType.class);
+            jdbcTemplate.query("SELECT id, type FROM `events`", rs -> {
+                loaded.put(EventType.valueOf(rs.getString("type")), rs.getLong("id"));
+            });
+            ids = loaded;
+            if (loaded.size() == EventType.values().length) {
+                this.eventIds = ids;
+            }
+        }
+        return ids;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return (value == null || value.length() <= maxLength) ? value : value.substring(0, maxLength);
+    }
+
+    private record AuditEvent(EventType type, String email, String device, String ipAddress, LocalDateTime createdAt) {
+    }
+}
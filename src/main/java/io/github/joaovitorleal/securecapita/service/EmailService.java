@@ -7,9 +7,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
+import java.util.Objects;
+
 @Service("emailService")
 public class EmailService implements NotificationService {
 
@@ -23,13 +25,23 @@ public class EmailService implements NotificationService {
     private static final String ACCOUNT_VERIFICATION_SUBJECT = "SecureCapita - Verify Your Account";
     private static final String ACCOUNT_VERIFIED_SUBJECT = "SecureCapita - Account Verified Successfully";
 
+    private static final String MFA_TEMPLATE = "mfa-code";
+    private static final String RESET_PASSWORD_TEMPLATE = "reset-password";
+    private static final String RESET_PASSWORD_CONFIRMATION_TEMPLATE = "reset-password-confirmation";
+    private static final String ACCOUNT_VERIFICATION_TEMPLATE = "account-verification";
+    private static final String ACCOUNT_VERIFIED_TEMPLATE = "account-verified";
+
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
+    private final EmailTemplateEngine templateEngine;
 
     @Value("${spring.mail.username}")
     private String fromEmail;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender, SmtpTransportPool transportPool, EmailTemplateEngine templateEngine) {
         this.mailSender = mailSender;
+        this.transportPool = transportPool;
+        this.templateEngine = templateEngine;
     }
 
     /**
@@ -38,7 +50,6 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param message corpo da mensagem.
      */
-    @Async("emailExecutor")
     @Override
     public void sendMessage(String to, String message) {
         this.sendEmail(to, GENERAL_SUBJECT, message);
@@ -52,7 +63,6 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param mfaCode Código de autenticação Multifator (Two-Factor Authentication).
      */
-    @Async("emailExecutor")
     @Override
     public void sendMfaCode(String userFirstName, String to, String mfaCode) {
         String htmlBody = this.buildMfaEmailBody(userFirstName, mfaCode);
@@ -67,7 +77,6 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param verificationUrl  URL de verificação para redefinir senha.
      */
-    @Async("emailExecutor")
     @Override
     public void sendResetPasswordUrl(String userFirstName, String to, String verificationUrl) {
         String htmlBody = this.buildResetPasswordEmailBody(userFirstName, verificationUrl);
@@ -81,7 +90,6 @@ public class EmailService implements NotificationService {
      * @param userFirstName Primeiro nome do usuário
      * @param to Destinatário do email.
      */
-    @Async("emailExecutor")
     @Override
     public void sendResetPasswordConfirmationMessage(String userFirstName, String to) {
         String htmlBody = this.buildResetPasswordConfirmationBody(userFirstName);
@@ -96,7 +104,6 @@ public class EmailService implements NotificationService {
      * @param to Destinatário do email.
      * @param verificationUrl URL de ativação de conta.
      */
-    @Async("emailExecutor")
     @Override
     public void sendAccountVerificationUrl(String userFirstName, String to, String verificationUrl) {
         String htmlBody = this.buildAccountVerificationBody(userFirstName, verificationUrl);
@@ -110,7 +117,6 @@ public class EmailService implements NotificationService {
      * @param userFirstName Primeiro nome do usuário
      * @param to Destinatário do email
      */
-    @Async("emailExecutor")
     @Override
     public void sendAccountVerifiedMessage(String userFirstName, String to) {
         String htmlBody = this.buildAccountVerifiedBody(userFirstName);
@@ -118,6 +124,16 @@ public class EmailService implements NotificationService {
         LOGGER.info("Account Verified Message sent to: {}", to);
     }
 
+    /**
+     * Envia todas as mensagens do lote pela mesma conexão SMTP.
+     *
+     * @param deliveries bloco que chama os métodos de envio deste serviço.
+     */
+    @Override
+    public void sendBatch(Runnable deliveries) {
+        transportPool.executeInSession(deliveries);
+    }
+
     /**
      * Centralizar lógica de envio de emails.
      *
@@ -136,7 +152,7 @@ public class EmailService implements NotificationService {
             helper.setSubject(subject);
             helper.setText(messageBody, true);
 
-            mailSender.send(mimeMessage);
+            transportPool.send(mimeMessage);
         } catch (Exception e) {
             LOGGER.error("Failed to send email to {}. Subject: {}", to, subject, e);
             throw new EmailDeliveryFailureException("Error while sending email.", e);
@@ -144,133 +160,24 @@ public class EmailService implements NotificationService {
     }
 
     // Helpers
+    // first_name pode ser nulo em contas legadas ou importadas; Map.of não aceita nulos, então o nome vira vazio.
     private String buildMfaEmailBody(String userFirstName, String mfaCode) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333;">
-                            <h1 style="color: #2c3e50;">SecureCapita</h1>
-                            <p>Hello, %s</p>
-                            <p>Here is your <strong>verification code</strong> to access your account:</p>
-                            <div style="margin: 20px 0; padding: 15px; background-color: #f4f4f4; border-radius: 5px; display: inline-block;">
-                                <span style="font-size: 24px; font-weight: bold; letter-spacing: 2px; color: #000;">%s</span>
-                            </div>
-                            <p>If you did not request this code, please ignore this email.</p>
-                        </body>
-                    </html>
-                """,
-                userFirstName, mfaCode
-        );
+        return templateEngine.render(MFA_TEMPLATE, Map.of("userFirstName", Objects.toString(userFirstName, ""), "mfaCode", mfaCode));
     }
 
     private String buildResetPasswordEmailBody(String userFirstName, String verificationUrl) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>We received a request to reset your password. Click the button below to choose a new one:</p>
-                                <div style="text-align: center; margin: 30px 0;">
-                                    <a href="%s"
-                                       style="background-color: #3498db; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
-                                       Reset Password
-                                    </a>
-                                </div>
-                                <p>This link will expire in 10 minutes.</p>
-                                <p style="font-size: 12px; color: #7f8c8d;">
-                                    If the button doesn't work, copy and paste this URL into your browser:<br>
-                                    <a href="%s" style="color: #3498db;">%s</a>
-                                </p>
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">If you did not request this, you can safely ignore this email.</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName, verificationUrl, verificationUrl, verificationUrl
-        );
+        return templateEngine.render(RESET_PASSWORD_TEMPLATE, Map.of("userFirstName", Objects.toString(userFirstName, ""), "verificationUrl", verificationUrl));
     }
 
     private String buildResetPasswordConfirmationBody(String userFirstName) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>This is a confirmation that the password for your SecureCapita account has been successfully changed.</p>
-
-                                <div style="background-color: #f0fdf4; border-left: 4px solid #2ecc71; padding: 15px; margin: 20px 0;">
-                                    <p style="margin: 0; color: #27ae60;"><strong>✓ Success:</strong> Your account is secured with the new password.</p>
-                                </div>
-    
-                                <p>If you did not perform this action, please contact our support immediately to secure your account.</p>
-
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">SecureCapita Security Team</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName
-        );
+        return templateEngine.render(RESET_PASSWORD_CONFIRMATION_TEMPLATE, Map.of("userFirstName", Objects.toString(userFirstName, "")));
     }
 
     private String buildAccountVerificationBody(String userFirstName, String verificationUrl) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>Welcome to SecureCapita! To start using your account, please verify your email address by clicking the button below:</p>
-                                <div style="text-align: center; margin: 30px 0;">
-                                    <a href="%s"
-                                       style="background-color: #3498db; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
-                                       Verify Account
-                                    </a>
-                                </div>
-                                <p style="font-size: 12px; color: #7f8c8d;">
-                                    If the button doesn't work, copy and paste this URL into your browser:<br>
-                                    <a href="%s" style="color: #3498db;">%s</a>
-                                </p>
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">If you did not create an account, no further action is required.</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName, verificationUrl, verificationUrl, verificationUrl
-        );
+        return templateEngine.render(ACCOUNT_VERIFICATION_TEMPLATE, Map.of("userFirstName", Objects.toString(userFirstName, ""), "verificationUrl", verificationUrl));
     }
 
     private String buildAccountVerifiedBody(String userFirstName) {
-        return String.format(
-                """
-                    <html>
-                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
-                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
-                                <h1 style="color: #2c3e50;">SecureCapita</h1>
-                                <p>Hello, <strong>%s</strong>,</p>
-                                <p>Great news! Your account has been successfully verified.</p>
-
-                                <div style="background-color: #f0fdf4; border-left: 4px solid #2ecc71; padding: 15px; margin: 20px 0;">
-                                    <p style="margin: 0; color: #27ae60;"><strong>✓ Account Activated:</strong> You can now log in and access all features.</p>
-                                </div>
-    
-                                <p>Thank you for joining SecureCapita.</p>
-
-                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
-                                <p style="font-size: 12px; color: #bdc3c7;">SecureCapita Team</p>
-                            </div>
-                        </body>
-                    </html>
-                """,
-                userFirstName
-        );
+        return templateEngine.render(ACCOUNT_VERIFIED_TEMPLATE, Map.of("userFirstName", Objects.toString(userFirstName, "")));
     }
 }
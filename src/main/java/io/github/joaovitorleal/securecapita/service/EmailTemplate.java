@@ -0,0 +1,126 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template de e-mail pré-compilado em uma lista de segmentos (texto literal e variáveis {@code {{nome}}}).
+ * <p>
+ * O texto é analisado uma única vez; renderizar apenas concatena os segmentos no buffer recebido,
+ * escapando o valor de cada variável para HTML.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    private final List<Segment> segments;
+    private final int estimatedLength;
+
+    private EmailTemplate(String name, List<Segment> segments, int estimatedLength) {
+        this.name = name;
+        this.segments = segments;
+        this.estimatedLength = estimatedLength;
+    }
+
+    /**
+     * Analisa o texto do template.
+     *
+     * @param name nome do template, usado nas mensagens de erro.
+     * @param source conteúdo HTML com variáveis {@code {{nome}}}.
+     * @throws IllegalArgumentException se houver uma variável não fechada ou sem nome.
+     */
+    public static EmailTemplate compile(String name, String source) {
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int position = 0;
+        while (position < source.length()) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed variable in email template '" + name + "' at index " + open + ".");
+            }
+            String variable = source.substring(open + OPEN.length(), close).strip();
+            if (variable.isEmpty()) {
+                throw new IllegalArgumentException("Empty variable in email template '" + name + "' at index " + open + ".");
+            }
+            if (open > position) {
+                segments.add(new Literal(source.substring(position, open)));
+                literalLength += open - position;
+            }
+            segments.add(new Variable(variable));
+            position = close + CLOSE.length();
+        }
+        if (position < source.length()) {
+            segments.add(new Literal(source.substring(position)));
+            literalLength += source.length() - position;
+        }
+        return new EmailTemplate(name, List.copyOf(segments), literalLength);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Tamanho aproximado do resultado, usado para dimensionar o buffer de renderização.
+     */
+    public int getEstimatedLength() {
+        return estimatedLength;
+    }
+
+    /**
+     * Escreve o template renderizado em {@code out}.
+     *
+     * @param out buffer de destino.
+     * @param variables valores das variáveis; todas as variáveis do template são obrigatórias.
+     * @throws IllegalArgumentException se alguma variável não for informada.
+     */
+    public void renderTo(StringBuilder out, Map<String, String> variables) {
+        for (Segment segment : segments) {
+            switch (segment) {
+                case Literal literal -> out.append(literal.text());
+                case Variable variable -> {
+                    String value = variables.get(variable.name());
+                    if (value == null) {
+                        throw new IllegalArgumentException("Missing variable '" + variable.name() + "' for email template '" + name + "'.");
+                    }
+                    appendEscaped(out, value);
+                }
+            }
+        }
+    }
+
+    private static void appendEscaped(StringBuilder out, String value) {
+        int unescapedStart = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String replacement = switch (value.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (replacement != null) {
+                out.append(value, unescapedStart, i).append(replacement);
+                unescapedStart = i + 1;
+            }
+        }
+        out.append(value, unescapedStart, value.length());
+    }
+
+    private sealed interface Segment permits Literal, Variable {
+    }
+
+    private record Literal(String text) implements Segment {
+    }
+
+    private record Variable(String name) implements Segment {
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Carrega e renderiza os templates de e-mail em {@code mail.templates.location}.
+ * <p>
+ * Cada arquivo {@code <nome>.html} é compilado uma vez na inicialização em um {@link EmailTemplate}. A renderização
+ * reaproveita um {@link StringBuilder} por thread. Com {@code mail.templates.hot-reload} ativo (perfil dev), o arquivo
+ * é recompilado sempre que sua data de modificação muda (apenas para templates lidos do sistema de arquivos).
+ */
+@Component
+public class EmailTemplateEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EmailTemplateEngine.class);
+
+    private static final String EXTENSION = ".html";
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private final Map<String, LoadedTemplate> templates = new ConcurrentHashMap<>();
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(4096));
+    private final boolean hotReload;
+
+    public EmailTemplateEngine(
+            ResourcePatternResolver resourcePatternResolver,
+            @Value("${mail.templates.location:classpath:templates/email/}") String location,
+            @Value("${mail.templates.hot-reload:false}") boolean hotReload
+    ) {
+        this.hotReload = hotReload;
+        try {
+            for (Resource resource : resourcePatternResolver.getResources(location + "*" + EXTENSION)) {
+                LoadedTemplate loaded = load(resource);
+                templates.put(loaded.template().getName(), loaded);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load email templates from " + location, e);
+        }
+        if (templates.isEmpty()) {
+            throw new IllegalStateException("No email templates found in " + location);
+        }
+        LOGGER.info("Loaded {} email templates from {} (hot reload: {}).", templates.size(), location, hotReload);
+    }
+
+    /**
+     * Renderiza o template informado.
+     *
+     * @param name nome do arquivo sem a extensão {@code .html}.
+     * @param variables valores das variáveis do template, escapados para HTML.
+     * @return HTML renderizado.
+     * @throws IllegalArgumentException se o template não existir ou faltar alguma variável.
+     */
+    public String render(String name, Map<String, String> variables) {
+        EmailTemplate template = this.getTemplate(name);
+        StringBuilder buffer = buffers.get();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            buffer = new StringBuilder(template.getEstimatedLength() + 256);
+            buffers.set(buffer);
+        }
+        buffer.setLength(0);
+        template.renderTo(buffer, variables);
+        return buffer.toString();
+    }
+
+    private EmailTemplate getTemplate(String name) {
+        LoadedTemplate loaded = templates.get(name);
+        if (loaded == null) {
+            throw new IllegalArgumentException("Unknown email template: " + name);
+        }
+        if (hotReload) {
+            loaded = templates.compute(name, (key, current) -> this.reloadIfModified(current));
+        }
+        return loaded.template();
+    }
+
+    private LoadedTemplate reloadIfModified(LoadedTemplate current) {
+        try {
+            if (!current.resource().isFile() || current.resource().lastModified() == current.lastModified()) {
+                return current;
+            }
+            LOGGER.debug("Reloading email template {}.", current.template().getName());
+            return load(current.resource());
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warn("Could not reload email template {}: {}", current.template().getName(), e.getMessage());
+            return current;
+        }
+    }
+
+    private static LoadedTemplate load(Resource resource) throws IOException {
+        String filename = resource.getFilename();
+        String name = filename.substring(0, filename.length() - EXTENSION.length());
+        String source = resource.getContentAsString(StandardCharsets.UTF_8);
+        long lastModified = resource.isFile() ? resource.lastModified() : 0L;
+        return new LoadedTemplate(EmailTemplate.compile(name, source), resource, lastModified);
+    }
+
+    private record LoadedTemplate(EmailTemplate template, Resource resource, long lastModified) {
+    }
+}
@@ -0,0 +1,257 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.github.joaovitorleal.securecapita.domain.NotificationOutbox;
+import io.github.joaovitorleal.securecapita.domain.enums.NotificationChannel;
+import io.github.joaovitorleal.securecapita.domain.enums.NotificationStatus;
+import io.github.joaovitorleal.securecapita.repository.NotificationOutboxJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Drena a outbox de notificações em lotes.
+ * <p>
+ * Cada ciclo reserva até {@code batch-size} mensagens vencidas (marcando-as PROCESSING com um lease), agrupa-as por
+ * canal em blocos de {@code chunk-size} enviados como lote (uma conexão SMTP por bloco de e-mails) no executor do
+ * canal, respeitando o limite de concorrência do canal, e ao final grava o resultado: SENT, nova tentativa com backoff
+ * exponencial, ou FAILED após {@code max-attempts}. Mensagens de um nó que caiu no meio do envio voltam a ficar
+ * disponíveis quando o lease expira.
+ * <p>
+ * O ciclo espera pelos envios do lote, então roda no {@code outboxDispatchExecutor}, e não na thread do agendador, que
+ * é compartilhada com as consultas periódicas de revogação de tokens, rate limit e invalidação de cache. Enquanto um
+ * ciclo está em andamento, os disparos seguintes do agendamento são ignorados.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    private static final int LAST_ERROR_MAX_LENGTH = 500;
+
+    private final NotificationOutboxJpaRepository outboxRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService emailService;
+    private final NotificationService smsService;
+    private final Map<NotificationChannel, Executor> channelExecutors = new EnumMap<>(NotificationChannel.class);
+    private final Map<NotificationChannel, Semaphore> channelPermits = new EnumMap<>(NotificationChannel.class);
+    private final Executor dispatchExecutor;
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    @Value("${notification.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notification.outbox.chunk-size:20}")
+    private int chunkSize;
+
+    @Value("${notification.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${notification.outbox.backoff.initial:10s}")
+    private Duration initialBackoff;
+
+    @Value("${notification.outbox.backoff.max:30m}")
+    private Duration maxBackoff;
+
+    @Value("${notification.outbox.lease:5m}")
+    private Duration lease;
+
+    public NotificationOutboxDispatcher(
+            NotificationOutboxJpaRepository outboxRepository,
+            TransactionTemplate transactionTemplate,
+            NotificationService emailService,
+            NotificationService smsService,
+            @Qualifier("emailExecutor") Executor emailExecutor,
+            @Qualifier("smsExecutor") Executor smsExecutor,
+            @Qualifier("outboxDispatchExecutor") Executor dispatchExecutor,
+            @Value("${notification.outbox.concurrency.email:8}") int emailConcurrency,
+            @Value("${notification.outbox.concurrency.sms:4}") int smsConcurrency
+    ) {
+        this.outboxRepository = outboxRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.emailService = emailService;
+        this.smsService = smsService;
+        this.channelExecutors.put(NotificationChannel.EMAIL, emailExecutor);
+        this.channelExecutors.put(NotificationChannel.SMS, smsExecutor);
+        this.channelPermits.put(NotificationChannel.EMAIL, new Semaphore(emailConcurrency));
+        this.channelPermits.put(NotificationChannel.SMS, new Semaphore(smsConcurrency));
+        this.dispatchExecutor = dispatchExecutor;
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:2s}")
+    public void dispatch() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatchExecutor.execute(() -> {
+                try {
+                    this.dispatchBatch();
+                } catch (RuntimeException e) {
+                    log.warn("Notification outbox dispatch failed: {}", e.getMessage());
+                } finally {
+                    dispatching.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dispatching.set(false);
+            log.warn("Notification outbox dispatch rejected: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reserva um lote, entrega-o e grava os resultados; bloqueia até todos os envios do lote terminarem.
+     */
+    private void dispatchBatch() {
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> this.claimBatch());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        ConcurrentLinkedQueue<Long> sent = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<FailedDelivery> failed = new ConcurrentLinkedQueue<>();
+        List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+        Map<NotificationChannel, List<NotificationOutbox>> byChannel = batch.stream()
+                .collect(Collectors.groupingBy(NotificationOutbox::getChannel, () -> new EnumMap<>(NotificationChannel.class), Collectors.toList()));
+        byChannel.forEach((channel, notifications) -> {
+            for (int start = 0; start < notifications.size(); start += chunkSize) {
+                List<NotificationOutbox> chunk = notifications.subList(start, Math.min(start + chunkSize, notifications.size()));
+                deliveries.add(this.deliverChunk(channel, chunk, sent, failed));
+            }
+        });
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).join();
+
+        transactionTemplate.executeWithoutResult(status -> this.recordResults(sent, failed));
+        log.debug("Notification outbox batch processed: {} sent, {} failed.", sent.size(), failed.size());
+    }
+
+    /**
+     * Entrega um bloco de mensagens do mesmo canal como um lote (uma conexão SMTP para e-mails),
+     * ocupando uma permissão do limite de concorrência do canal.
+     */
+    private CompletableFuture<Void> deliverChunk(
+            NotificationChannel channel,
+            List<NotificationOutbox> chunk,
+            ConcurrentLinkedQueue<Long> sent,
+            ConcurrentLinkedQueue<FailedDelivery> failed
+    ) {
+        NotificationService notificationService = this.serviceFor(channel);
+        Semaphore permits = channelPermits.get(channel);
+        permits.acquireUninterruptibly();
+        try {
+            return CompletableFuture.runAsync(() -> {
+                List<NotificationOutbox> pending = new ArrayList<>(chunk);
+                try {
+                    notificationService.sendBatch(() -> {
+                        for (NotificationOutbox notification : chunk) {
+                            try {
+                                this.deliver(notificationService, notification);
+                                sent.add(notification.getId());
+                            } catch (Exception e) {
+                                log.warn("Failed to deliver notification {} (attempt {}): {}", notification.getDedupKey(), notification.getAttempts() + 1, e.getMessage());
+                                failed.add(new FailedDelivery(notification, e));
+                            }
+                            pending.remove(notification);
+                        }
+                    });
+                } catch (Exception e) {
+                    log.warn("Failed to open {} delivery batch: {}", channel, e.getMessage());
+                    pending.forEach(notification -> failed.add(new FailedDelivery(notification, e)));
+                } finally {
+                    permits.release();
+                }
+            }, channelExecutors.get(channel));
+        } catch (RuntimeException e) {
+            permits.release();
+            chunk.forEach(notification -> failed.add(new FailedDelivery(notification, e)));
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private List<NotificationOutbox> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> batch = outboxRepository.findDueForUpdate(now, batchSize);
+        if (!batch.isEmpty()) {
+            outboxRepository.updateStatus(
+                    batch.stream().map(NotificationOutbox::getId).toList(),
+                    NotificationStatus.PROCESSING,
+                    now.plus(lease)
+            );
+        }
+        return batch;
+    }
+
+    private NotificationService serviceFor(NotificationChannel channel) {
+        return switch (channel) {
+            case EMAIL -> emailService;
+            case SMS -> smsService;
+        };
+    }
+
+    private void deliver(NotificationService notificationService, NotificationOutbox notification) {
+        String recipient = notification.getRecipient();
+        String name = notification.getRecipientName();
+        switch (notification.getType()) {
+            case MFA_CODE -> notificationService.sendMfaCode(name, recipient, notification.getContent());
+            case RESET_PASSWORD_URL -> notificationService.sendResetPasswordUrl(name, recipient, notification.getContent());
+            case RESET_PASSWORD_CONFIRMATION -> notificationService.sendResetPasswordConfirmationMessage(name, recipient);
+            case ACCOUNT_VERIFICATION_URL -> notificationService.sendAccountVerificationUrl(name, recipient, notification.getContent());
+            case ACCOUNT_VERIFIED -> notificationService.sendAccountVerifiedMessage(name, recipient);
+        }
+    }
+
+    private void recordResults(ConcurrentLinkedQueue<Long> sent, ConcurrentLinkedQueue<FailedDelivery> failed) {
+        if (!sent.isEmpty()) {
+            outboxRepository.markSent(sent);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (FailedDelivery failedDelivery : failed) {
+            NotificationOutbox notification = failedDelivery.notification();
+            int attempts = notification.getAttempts() + 1;
+            boolean exhausted = attempts >= maxAttempts;
+            String lastError = this.truncate(failedDelivery.error().getMessage());
+            if (exhausted) {
+                log.error("Notification {} failed permanently after {} attempts.", notification.getDedupKey(), attempts);
+                outboxRepository.markFailed(notification.getId(), attempts, now.plus(this.backoff(attempts)), lastError);
+                continue;
+            }
+            outboxRepository.markFailedAttempt(
+                    notification.getId(),
+                    NotificationStatus.PENDING,
+                    attempts,
+                    now.plus(this.backoff(attempts)),
+                    lastError
+            );
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private String truncate(String message) {
+        if (message == null || message.length() <= LAST_ERROR_MAX_LENGTH) {
+            return message;
+        }
+        return message.substring(0, LAST_ERROR_MAX_LENGTH);
+    }
+
+    private record FailedDelivery(NotificationOutbox notification, Exception error) {
+    }
+}
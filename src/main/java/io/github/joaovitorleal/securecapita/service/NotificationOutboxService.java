@@ -0,0 +1,119 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.domain.enums.MfaType;
+import io.github.joaovitorleal.securecapita.domain.enums.NotificationChannel;
+import io.github.joaovitorleal.securecapita.domain.enums.NotificationStatus;
+import io.github.joaovitorleal.securecapita.domain.enums.NotificationType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enfileira notificações na outbox dentro da transação de negócio corrente.
+ * <p>
+ * A mensagem só se torna visível para o {@link NotificationOutboxDispatcher} quando a transação que gravou a
+ * verificação correspondente é confirmada; um rollback descarta as duas juntas. A chave de deduplicação é formada
+ * pelo tipo da notificação e pelo id da verificação que a originou; uma chave repetida, inclusive por uma transação
+ * concorrente, é ignorada pelo próprio INSERT, sem violar a restrição única e sem desfazer a transação do chamador.
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO notification_outbox (channel, type, recipient, recipient_name, content, dedup_key, status,
+                                             attempts, next_attempt_at, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, 0, ?, ?)
+            """;
+    private static final String ENQUEUE_SQL = INSERT_SQL + "ON DUPLICATE KEY UPDATE id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public NotificationOutboxService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAccountVerificationUrl(User user, Long accountVerificationId, String verificationUrl) {
+        this.enqueue(NotificationChannel.EMAIL, NotificationType.ACCOUNT_VERIFICATION_URL, user.getEmail(), user.getFirstName(), verificationUrl, accountVerificationId);
+    }
+
+    /**
+     * Enfileira os e-mails de verificação de contas recém-criadas em um único lote JDBC, sem consulta de deduplicação:
+     * as verificações acabaram de ser gravadas na mesma transação, então as chaves são inéditas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAccountVerificationUrls(List<PendingAccountVerification> verifications) {
+        if (verifications.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(verifications.size());
+        for (PendingAccountVerification verification : verifications) {
+            rows.add(new Object[]{
+                    NotificationChannel.EMAIL.name(),
+                    NotificationType.ACCOUNT_VERIFICATION_URL.name(),
+                    verification.email(),
+                    verification.firstName(),
+                    verification.verificationUrl(),
+                    NotificationType.ACCOUNT_VERIFICATION_URL.name() + ":" + verification.accountVerificationId(),
+                    NotificationStatus.PENDING.name(),
+                    now,
+                    now
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAccountVerifiedMessage(User user, Long accountVerificationId) {
+        this.enqueue(NotificationChannel.EMAIL, NotificationType.ACCOUNT_VERIFIED, user.getEmail(), user.getFirstName(), null, accountVerificationId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueResetPasswordUrl(User user, Long resetPasswordVerificationId, String verificationUrl) {
+        this.enqueue(NotificationChannel.EMAIL, NotificationType.RESET_PASSWORD_URL, user.getEmail(), user.getFirstName(), verificationUrl, resetPasswordVerificationId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueResetPasswordConfirmation(User user, Long resetPasswordVerificationId) {
+        this.enqueue(NotificationChannel.EMAIL, NotificationType.RESET_PASSWORD_CONFIRMATION, user.getEmail(), user.getFirstName(), null, resetPasswordVerificationId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueMfaCode(User user, Long mfaVerificationId, String code) {
+        if (MfaType.SMS.equals(user.getMfaType())) {
+            this.enqueue(NotificationChannel.SMS, NotificationType.MFA_CODE, user.getPhone(), user.getFirstName(), code, mfaVerificationId);
+        } else {
+            this.enqueue(NotificationChannel.EMAIL, NotificationType.MFA_CODE, user.getEmail(), user.getFirstName(), code, mfaVerificationId);
+        }
+    }
+
+    private void enqueue(
+            NotificationChannel channel,
+            NotificationType type,
+            String recipient,
+            String recipientName,
+            String content,
+            Long sourceId
+    ) {
+        String dedupKey = type.name() + ":" + sourceId;
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int inserted = jdbcTemplate.update(ENQUEUE_SQL, channel.name(), type.name(), recipient, recipientName, content, dedupKey,
+                NotificationStatus.PENDING.name(), now, now);
+        if (inserted == 0) {
+            log.debug("Notification {} already queued, skipping.", dedupKey);
+        }
+    }
+
+    public record PendingAccountVerification(String email, String firstName, Long accountVerificationId, String verificationUrl) {
+    }
+}
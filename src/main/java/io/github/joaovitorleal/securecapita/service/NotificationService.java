@@ -8,4 +8,14 @@ public interface NotificationService {
     void sendResetPasswordConfirmationMessage(String userFirstName, String to);
     void sendAccountVerificationUrl(String userFirstName, String to, String verificationUrl);
     void sendAccountVerifiedMessage(String userFirstName, String to);
+
+    /**
+     * Executa um lote de envios. Implementações podem reaproveitar recursos entre as mensagens do lote
+     * (ex.: uma única conexão SMTP).
+     *
+     * @param deliveries bloco que chama os métodos de envio deste serviço.
+     */
+    default void sendBatch(Runnable deliveries) {
+        deliveries.run();
+    }
 }
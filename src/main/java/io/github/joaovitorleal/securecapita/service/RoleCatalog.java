@@ -0,0 +1,105 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.repository.RoleJpaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Catálogo em memória dos papéis (roles), carregado do banco na inicialização.
+ * <p>
+ * Cada papel guarda sua lista imutável de authorities já convertida a partir da coluna {@code permission}, evitando a
+ * consulta em {@code roles} no cadastro e o parsing da string a cada login. Quem alterar a tabela {@code roles} deve
+ * chamar {@link #invalidate()} (recarga na próxima leitura) ou {@link #reload()}.
+ */
+@Service
+@Slf4j
+public class RoleCatalog {
+
+    private final RoleJpaRepository roleRepository;
+    private volatile Map<String, RoleEntry> rolesByName;
+
+    public RoleCatalog(RoleJpaRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reload() {
+        Map<String, RoleEntry> loaded = roleRepository.findAll().stream()
+                .map(RoleEntry::of)
+                .collect(Collectors.toUnmodifiableMap(RoleEntry::name, Function.identity()));
+        this.rolesByName = loaded;
+        log.info("Role catalog loaded with {} roles.", loaded.size());
+    }
+
+    public void invalidate() {
+        this.rolesByName = null;
+    }
+
+    /**
+     * Retorna uma cópia destacada (detached) do papel, pronta para ser associada a uma entidade sem nova consulta.
+     *
+     * @param name nome do papel, ex.: {@code ROLE_USER}.
+     */
+    public Optional<Role> findByName(String name) {
+        return Optional.ofNullable(this.roles().get(name)).map(RoleEntry::toRole);
+    }
+
+    /**
+     * Authorities do papel. Se a permissão do papel recebido divergir da versão em cache (catálogo desatualizado),
+     * a string é convertida diretamente.
+     */
+    public List<GrantedAuthority> authoritiesOf(Role role) {
+        if (role == null) {
+            return List.of();
+        }
+        RoleEntry entry = this.roles().get(role.getName());
+        if (entry != null && entry.permission().equals(role.getPermission())) {
+            return entry.authorities();
+        }
+        log.debug("Role {} not in catalog or outdated; parsing its permissions.", role.getName());
+        return RoleEntry.parse(role.getPermission());
+    }
+
+    private Map<String, RoleEntry> roles() {
+        Map<String, RoleEntry> roles = this.rolesByName;
+        if (roles == null) {
+            synchronized (this) {
+                if (this.rolesByName == null) {
+                    this.reload();
+                }
+                roles = this.rolesByName;
+            }
+        }
+        return roles;
+    }
+
+    private record RoleEntry(Long id, String name, String permission, List<GrantedAuthority> authorities) {
+
+        private static RoleEntry of(Role role) {
+            return new RoleEntry(role.getId(), role.getName(), role.getPermission(), parse(role.getPermission()));
+        }
+
+        private static List<GrantedAuthority> parse(String permission) {
+            return (permission == null) ? List.of() : List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(permission));
+        }
+
+        private Role toRole() {
+            Role role = new Role();
+            role.setId(id);
+            role.setName(name);
+            role.setPermission(permission);
+            return role;
+        }
+    }
+}
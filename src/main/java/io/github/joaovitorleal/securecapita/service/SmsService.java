@@ -1,23 +1,40 @@
 package io.github.joaovitorleal.securecapita.service;
 
-import com.twilio.Twilio;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import io.github.joaovitorleal.securecapita.exception.SmsDeliveryFailureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+
 @Deprecated(since = "1.1.0")
 @Service("smsService")
 public class SmsService implements NotificationService {
 
-    @Value("${FROM_NUMBER}")
-    private String fromNumber;
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmsService.class);
 
-    @Value("${TWILIO_ACCOUNT_SID}")
-    private String twilioAccountSid;
+    private final SmsTransport smsTransport;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Timer sendTimer;
 
-    @Value("${TWILIO_AUTH_TOKEN}")
-    private String twilioAuthToken;
+    public SmsService(
+            SmsTransport smsTransport,
+            @Value("${sms.retry.max-attempts:3}") int maxAttempts,
+            @Value("${sms.retry.backoff:500ms}") Duration retryBackoff,
+            MeterRegistry meterRegistry
+    ) {
+        this.smsTransport = smsTransport;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBackoff = retryBackoff;
+        this.sendTimer = Timer.builder("securecapita.sms.send")
+                .tag("transport", smsTransport.getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     /**
      * Enviar mensagem de notificações genéricas.
@@ -25,13 +42,9 @@ public class SmsService implements NotificationService {
      * @param to Número de telefone de destino.
      * @param message corpo da mensagem.
      */
+    @Override
     public void sendMessage(String to, String message) {
-        Twilio.init(twilioAccountSid, twilioAuthToken);
-        Message smsMessage = Message.creator(
-                new PhoneNumber("+55" + to),
-                new PhoneNumber("+55" + fromNumber),
-                message
-        ).create();
+        this.sendSms(to, message);
     }
 
     /**
@@ -43,13 +56,8 @@ public class SmsService implements NotificationService {
      */
     @Override
     public void sendMfaCode(String userFirstName, String to, String mfaCode) {
-        Twilio.init(twilioAccountSid, twilioAuthToken);
-        Message smsMessage = Message.creator(
-                new PhoneNumber("+55" + to),
-                new PhoneNumber("+55" + fromNumber),
-                mfaCode
-        ).create();
-        // TODO
+        this.sendSms(to, mfaCode);
+        LOGGER.info("MFA code SMS sent to: {}", to);
     }
 
     /**
@@ -89,4 +97,35 @@ public class SmsService implements NotificationService {
     public void sendAccountVerifiedMessage(String userFirstName, String to) {
         //...
     }
+
+    /**
+     * Centralizar lógica de envio de SMS, repetindo falhas transitórias (timeout, 429, 5xx) com backoff exponencial.
+     * Chamado pelo {@link NotificationOutboxDispatcher} no executor de SMS, nunca na thread da requisição.
+     *
+     * @throws SmsDeliveryFailureException se todas as tentativas falharem ou a falha não for transitória.
+     */
+    private void sendSms(String to, String body) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sendTimer.record(() -> smsTransport.send(to, body));
+                return;
+            } catch (SmsTransport.SmsTransportException e) {
+                if (!e.isTransient() || attempt >= maxAttempts) {
+                    LOGGER.error("Failed to send SMS to {} after {} attempt(s).", to, attempt, e);
+                    throw new SmsDeliveryFailureException("Error while sending SMS.", e);
+                }
+                LOGGER.warn("Transient SMS failure for {} (attempt {}/{}): {}", to, attempt, maxAttempts, e.getMessage());
+                this.sleep(retryBackoff.multipliedBy(1L << (attempt - 1)));
+            }
+        }
+    }
+
+    private void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SmsDeliveryFailureException("Interrupted while retrying SMS delivery.", e);
+        }
+    }
 }
@@ -0,0 +1,35 @@
+package io.github.joaovitorleal.securecapita.service;
+
+/**
+ * Transporte usado pelo {@link SmsService} para entregar uma mensagem ao provedor.
+ * <p>
+ * Selecionado por {@code sms.transport}: {@code twilio} (padrão) ou {@code stub} para testes e ambiente local.
+ */
+public interface SmsTransport {
+
+    /**
+     * Envia a mensagem de forma síncrona.
+     *
+     * @param to Número de telefone de destino (sem código do país).
+     * @param body Texto da mensagem.
+     * @throws SmsTransportException se o envio falhar.
+     */
+    void send(String to, String body);
+
+    /**
+     * Falha de envio de SMS; {@code transient} indica se vale a pena tentar novamente (timeout, 429, 5xx).
+     */
+    class SmsTransportException extends RuntimeException {
+
+        private final boolean transientFailure;
+
+        public SmsTransportException(String message, boolean transientFailure, Throwable cause) {
+            super(message, cause);
+            this.transientFailure = transientFailure;
+        }
+
+        public boolean isTransient() {
+            return transientFailure;
+        }
+    }
+}
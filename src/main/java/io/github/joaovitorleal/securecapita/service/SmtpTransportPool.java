@@ -0,0 +1,251 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.eclipse.angus.mail.util.MailConnectException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pool de conexões SMTP autenticadas sobre o {@link JavaMailSenderImpl}.
+ * <p>
+ * O {@code JavaMailSender.send} abre e fecha uma sessão SMTP (TLS + AUTH) a cada mensagem. Aqui as conexões são
+ * mantidas abertas e reutilizadas (LIFO, para que a conexão mais quente seja a próxima usada), renovadas ao exceder
+ * o tempo ocioso ou o número máximo de mensagens, e reconectadas uma vez quando o envio falha por causa da conexão
+ * (fechada pelo servidor, erro de rede ou de conexão). Recusas do servidor, como destinatário inválido, não são
+ * repetidas: reenviar duplicaria a mensagem para quem já a aceitou, e a falha segue direto para o outbox.
+ * {@link #executeInSession(Runnable)} vincula uma única conexão à thread corrente, de modo que um lote inteiro de
+ * mensagens trafega pela mesma sessão SMTP.
+ */
+@Component
+public class SmtpTransportPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SmtpTransportPool.class);
+
+    private final JavaMailSenderImpl mailSender;
+    private final BlockingDeque<PooledTransport> idleTransports = new LinkedBlockingDeque<>();
+    private final ThreadLocal<PooledTransport> sessionTransport = new ThreadLocal<>();
+    private final Semaphore connectionPermits;
+    private final Duration borrowTimeout;
+    private final Duration maxIdle;
+    private final int maxMessagesPerConnection;
+    private final Counter connectionsOpened;
+    private final Counter connectionsReused;
+    private final Timer sendTimer;
+
+    public SmtpTransportPool(
+            JavaMailSenderImpl mailSender,
+            @Value("${mail.pool.max-connections:8}") int maxConnections,
+            @Value("${mail.pool.borrow-timeout:30s}") Duration borrowTimeout,
+            @Value("${mail.pool.max-idle:60s}") Duration maxIdle,
+            @Value("${mail.pool.max-messages-per-connection:100}") int maxMessagesPerConnection,
+            MeterRegistry meterRegistry
+    ) {
+        this.mailSender = mailSender;
+        this.connectionPermits = new Semaphore(maxConnections);
+        this.borrowTimeout = borrowTimeout;
+        this.maxIdle = maxIdle;
+        this.maxMessagesPerConnection = maxMessagesPerConnection;
+        this.connectionsOpened = Counter.builder("securecapita.mail.connections.opened").register(meterRegistry);
+        this.connectionsReused = Counter.builder("securecapita.mail.connections.reused").register(meterRegistry);
+        this.sendTimer = Timer.builder("securecapita.mail.send")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("securecapita.mail.connections.idle", idleTransports, BlockingDeque::size).register(meterRegistry);
+    }
+
+    /**
+     * Envia a mensagem pela conexão vinculada à thread (dentro de {@link #executeInSession(Runnable)})
+     * ou por uma conexão emprestada do pool.
+     *
+     * @param message mensagem já preenchida.
+     * @throws MailSendException se o servidor recusar a mensagem ou se o envio falhar mesmo após reconectar.
+     */
+    public void send(MimeMessage message) {
+        PooledTransport boundTransport = sessionTransport.get();
+        if (boundTransport != null) {
+            this.sendWithReconnect(boundTransport, message);
+            return;
+        }
+        PooledTransport transport = this.borrow();
+        try {
+            this.sendWithReconnect(transport, message);
+        } finally {
+            this.release(transport);
+        }
+    }
+
+    /**
+     * Executa {@code deliveries} com uma única conexão SMTP vinculada à thread corrente.
+     *
+     * @param deliveries bloco que chama {@link #send(MimeMessage)} uma ou mais vezes.
+     */
+    public void executeInSession(Runnable deliveries) {
+        if (sessionTransport.get() != null) {
+            deliveries.run();
+            return;
+        }
+        PooledTransport transport = this.borrow();
+        sessionTransport.set(transport);
+        try {
+            deliveries.run();
+        } finally {
+            sessionTransport.remove();
+            this.release(transport);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        PooledTransport transport;
+        while ((transport = idleTransports.pollFirst()) != null) {
+            transport.close();
+        }
+    }
+
+    private PooledTransport borrow() {
+        try {
+            if (!connectionPermits.tryAcquire(borrowTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Timed out waiting for an SMTP connection.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection.", e);
+        }
+        PooledTransport transport;
+        while ((transport = idleTransports.pollFirst()) != null) {
+            if (transport.isReusable(maxIdle, maxMessagesPerConnection)) {
+                connectionsReused.increment();
+                return transport;
+            }
+            transport.close();
+        }
+        try {
+            return new PooledTransport(mailSender.getSession().getTransport(mailSender.getProtocol()));
+        } catch (MessagingException e) {
+            connectionPermits.release();
+            throw new MailSendException("Could not create SMTP transport.", e);
+        }
+    }
+
+    private void release(PooledTransport transport) {
+        if (transport.isConnected()) {
+            transport.touch();
+            idleTransports.offerFirst(transport);
+        }
+        connectionPermits.release();
+    }
+
+    private void sendWithReconnect(PooledTransport transport, MimeMessage message) {
+        sendTimer.record(() -> {
+            try {
+                message.saveChanges();
+                this.sendMessage(transport, message);
+            } catch (MessagingException firstFailure) {
+                if (!isConnectionFailure(transport, firstFailure)) {
+                    throw new MailSendException("SMTP server rejected the message.", firstFailure);
+                }
+                LOGGER.debug("SMTP connection failed, reconnecting: {}", firstFailure.getMessage());
+                transport.close();
+                try {
+                    this.sendMessage(transport, message);
+                } catch (MessagingException e) {
+                    transport.close();
+                    throw new MailSendException("Failed to send message over SMTP.", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Indica se a falha foi da conexão, caso em que reconectar e reenviar é seguro. {@link SendFailedException} (e o
+     * {@code SMTPSendFailedException}) é uma resposta do servidor numa conexão viva e não entra aqui.
+     */
+    private static boolean isConnectionFailure(PooledTransport transport, MessagingException failure) {
+        if (failure instanceof SendFailedException) {
+            return false;
+        }
+        return failure instanceof MailConnectException || failure.getCause() instanceof IOException || !transport.isOpen();
+    }
+
+    private void sendMessage(PooledTransport transport, MimeMessage message) throws MessagingException {
+        if (!transport.isConnected()) {
+            transport.connect(mailSender);
+            connectionsOpened.increment();
+        }
+        transport.send(message);
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private boolean connected;
+        private int messagesSent;
+        private long lastUsedNanos = System.nanoTime();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void connect(JavaMailSenderImpl mailSender) throws MessagingException {
+            String username = mailSender.getUsername();
+            String password = mailSender.getPassword();
+            transport.connect(
+                    mailSender.getHost(),
+                    mailSender.getPort(),
+                    (username == null || username.isEmpty()) ? null : username,
+                    (password == null || password.isEmpty()) ? null : password
+            );
+            connected = true;
+            messagesSent = 0;
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            transport.sendMessage(message, message.getAllRecipients());
+            messagesSent++;
+        }
+
+        private boolean isConnected() {
+            return connected;
+        }
+
+        private boolean isOpen() {
+            return connected && transport.isConnected();
+        }
+
+        private boolean isReusable(Duration maxIdle, int maxMessages) {
+            return connected && messagesSent < maxMessages && System.nanoTime() - lastUsedNanos < maxIdle.toNanos();
+        }
+
+        private void touch() {
+            lastUsedNanos = System.nanoTime();
+        }
+
+        private void close() {
+            connected = false;
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                LOGGER.debug("Error closing SMTP transport: {}", e.getMessage());
+            }
+        }
+    }
+}
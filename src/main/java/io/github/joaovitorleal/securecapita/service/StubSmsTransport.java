@@ -0,0 +1,49 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * Transporte local que não fala com nenhum provedor: registra as mensagens em log e guarda as mais recentes em memória,
+ * para testes e ambiente de desenvolvimento ({@code sms.transport=stub}).
+ */
+@Component
+@ConditionalOnProperty(name = "sms.transport", havingValue = "stub")
+public class StubSmsTransport implements SmsTransport {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StubSmsTransport.class);
+    private static final int MAX_RETAINED = 1000;
+
+    private final Deque<SentSms> sentMessages = new ConcurrentLinkedDeque<>();
+
+    @Override
+    public void send(String to, String body) {
+        sentMessages.addFirst(new SentSms(to, body, Instant.now()));
+        while (sentMessages.size() > MAX_RETAINED) {
+            sentMessages.pollLast();
+        }
+        LOGGER.info("[stub] SMS to {}: {}", to, body);
+    }
+
+    /**
+     * Mensagens enviadas, da mais recente para a mais antiga.
+     */
+    public List<SentSms> getSentMessages() {
+        return new ArrayList<>(sentMessages);
+    }
+
+    public void clear() {
+        sentMessages.clear();
+    }
+
+    public record SentSms(String to, String body, Instant sentAt) {
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import com.twilio.exception.ApiConnectionException;
+import com.twilio.exception.ApiException;
+import com.twilio.http.NetworkHttpClient;
+import com.twilio.http.TwilioRestClient;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Envio de SMS pela API da Twilio.
+ * <p>
+ * O {@link TwilioRestClient} (e seu pool HTTP) é criado uma única vez, com timeouts de conexão e de resposta,
+ * em vez de chamar {@code Twilio.init} a cada mensagem.
+ */
+@Component
+@ConditionalOnProperty(name = "sms.transport", havingValue = "twilio", matchIfMissing = true)
+public class TwilioSmsTransport implements SmsTransport {
+
+    private static final String COUNTRY_CODE = "+55";
+
+    private final TwilioRestClient client;
+    private final PhoneNumber from;
+
+    public TwilioSmsTransport(
+            @Value("${TWILIO_ACCOUNT_SID}") String twilioAccountSid,
+            @Value("${TWILIO_AUTH_TOKEN}") String twilioAuthToken,
+            @Value("${FROM_NUMBER}") String fromNumber,
+            @Value("${sms.timeout:10s}") Duration timeout
+    ) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(Timeout.of(timeout))
+                .setResponseTimeout(Timeout.of(timeout))
+                .setConnectionRequestTimeout(Timeout.of(timeout))
+                .build();
+        this.client = new TwilioRestClient.Builder(twilioAccountSid, twilioAuthToken)
+                .httpClient(new NetworkHttpClient(requestConfig))
+                .build();
+        this.from = new PhoneNumber(COUNTRY_CODE + fromNumber);
+    }
+
+    @Override
+    public void send(String to, String body) {
+        try {
+            Message.creator(new PhoneNumber(COUNTRY_CODE + to), from, body).create(client);
+        } catch (ApiConnectionException e) {
+            throw new SmsTransportException("Could not reach Twilio.", true, e);
+        } catch (ApiException e) {
+            Integer status = e.getStatusCode();
+            boolean transientFailure = status == null || status == 429 || status >= 500;
+            throw new SmsTransportException("Twilio rejected the message (status " + status + ").", transientFailure, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Canal de invalidação do {@link UserSnapshotCache} entre instâncias, apoiado na tabela {@code user_cache_invalidations}.
+ * <p>
+ * Cada escrita em usuários grava uma linha com o e-mail alterado na mesma transação de negócio; todos os nós consultam
+ * periodicamente as linhas recentes (janela {@code lookback}, medida pelo relógio do banco) e descartam as entradas
+ * locais correspondentes. A janela se sobrepõe entre consultas para tolerar commits fora da ordem do id; linhas já
+ * processadas são ignoradas. Se o nó ficar mais que {@code lookback} sem conseguir consultar, o cache local inteiro é
+ * descartado.
+ * <p>
+ * Fica ligado por padrão: sem ele, um snapshot com senha antiga ou conta já bloqueada/desativada continua valendo nos
+ * outros nós até o TTL do cache. Desligar ({@code user.cache.invalidation.enabled=false}) só faz sentido com uma única
+ * instância.
+ */
+@Component
+@ConditionalOnProperty(name = "user.cache.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class UserCacheInvalidationBroadcaster {
+
+    private static final String INSERT_SQL = "INSERT INTO user_cache_invalidations (email, created_at) VALUES (?, NOW(3))";
+    private static final String SELECT_RECENT_SQL = """
+            SELECT id, email FROM user_cache_invalidations
+            WHERE created_at >= TIMESTAMPADD(MICROSECOND, -?, NOW(3))
+            ORDER BY id
+            """;
+    private static final String PURGE_SQL = "DELETE FROM user_cache_invalidations WHERE created_at < TIMESTAMPADD(SECOND, -?, NOW(3)) LIMIT 1000";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration lookback;
+    private final Duration retention;
+    private final Map<Long, Long> processedIds = new HashMap<>();
+    private volatile Consumer<String> localInvalidation = key -> { };
+    private volatile Runnable localInvalidateAll = () -> { };
+    private long lastSuccessfulPollNanos = System.nanoTime();
+
+    public UserCacheInvalidationBroadcaster(
+            JdbcTemplate jdbcTemplate,
+            @Value("${user.cache.invalidation.lookback:10s}") Duration lookback,
+            @Value("${user.cache.invalidation.retention:1h}") Duration retention
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.lookback = lookback;
+        this.retention = retention;
+    }
+
+    void subscribe(Consumer<String> invalidation, Runnable invalidateAll) {
+        this.localInvalidation = invalidation;
+        this.localInvalidateAll = invalidateAll;
+    }
+
+    /**
+     * Registra a invalidação na transação corrente; fica visível para os demais nós após o commit.
+     *
+     * @param key e-mail do usuário em minúsculas.
+     */
+    void publish(String key) {
+        jdbcTemplate.update(INSERT_SQL, key);
+    }
+
+    @Scheduled(fixedDelayString = "${user.cache.invalidation.poll-interval:2s}")
+    public synchronized void poll() {
+        long now = System.nanoTime();
+        if (now - lastSuccessfulPollNanos > lookback.toNanos()) {
+            log.warn("User cache invalidations not polled for more than {}; clearing the local cache.", lookback);
+            localInvalidateAll.run();
+        }
+        try {
+            jdbcTemplate.query(SELECT_RECENT_SQL, rs -> {
+                long id = rs.getLong("id");
+                if (processedIds.putIfAbsent(id, now) == null) {
+                    localInvalidation.accept(rs.getString("email"));
+                }
+            }, lookback.toNanos() / 1_000);
+            lastSuccessfulPollNanos = now;
+        } catch (RuntimeException e) {
+            log.warn("Could not poll user cache invalidations: {}", e.getMessage());
+        }
+        processedIds.values().removeIf(seenAt -> now - seenAt > lookback.multipliedBy(2).toNanos());
+    }
+
+    @Scheduled(fixedDelayString = "${user.cache.invalidation.purge-interval:10m}")
+    public void purge() {
+        int deleted = jdbcTemplate.update(PURGE_SQL, retention.toSeconds());
+        if (deleted > 0) {
+            log.debug("Purged {} user cache invalidation rows.", deleted);
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.domain.enums.DataFormat;
+import io.github.joaovitorleal.securecapita.dto.UserCreateRequestDto;
+import io.github.joaovitorleal.securecapita.dto.UserImportResultDto;
+import io.github.joaovitorleal.securecapita.exception.InvalidImportFileException;
+import io.github.joaovitorleal.securecapita.exception.RoleNotFoundByNameException;
+import io.github.joaovitorleal.securecapita.repository.IdGeneratorRepository;
+import io.github.joaovitorleal.securecapita.repository.UserJpaRepository;
+import io.github.joaovitorleal.securecapita.security.crypto.BoundedPasswordEncoder;
+import io.github.joaovitorleal.securecapita.security.crypto.Sha256Hashes;
+import io.github.joaovitorleal.securecapita.service.NotificationOutboxService.PendingAccountVerification;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static io.github.joaovitorleal.securecapita.domain.enums.RoleType.ROLE_USER;
+
+/**
+ * Importação em massa de usuários a partir de CSV (cabeçalho {@code firstName,lastName,email,password}) ou NDJSON
+ * (um {@link UserCreateRequestDto} por linha).
+ * <p>
+ * A entrada é lida linha a linha e processada em lotes de {@code user.import.batch-size}. Por lote: validação, uma
+ * única consulta {@code IN} para descartar e-mails já cadastrados, hash das senhas em paralelo em um
+ * {@link ForkJoinPool} próprio (fora do pool limitado do login), reserva dos ids em {@code id_generators} e, numa
+ * transação curta, inserts em lote JDBC em {@code users}, {@code user_roles} e {@code account_verifications}, com os
+ * e-mails de verificação enfileirados de uma vez na outbox. Com {@code rewriteBatchedStatements=true} na URL do MySQL, cada lote vira um INSERT multi-linhas.
+ * Linhas inválidas ou duplicadas não interrompem a importação; um lote que falhe no banco é rejeitado inteiro.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (id, first_name, last_name, email, password, created_at) VALUES (?, ?, ?, ?, ?, ?)
+            """;
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)";
+    private static final String INSERT_ACCOUNT_VERIFICATION_SQL = """
+            INSERT INTO account_verifications (id, user_id, url, token_hash, expiration_date) VALUES (?, ?, ?, ?, ?)
+            """;
+    private static final String USERS_ID_GENERATOR = "users";
+    private static final String ACCOUNT_VERIFICATIONS_ID_GENERATOR = "account_verifications";
+    private static final List<String> CSV_COLUMNS = List.of("firstName", "lastName", "email", "password");
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdGeneratorRepository idGeneratorRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final UserJpaRepository userRepository;
+    private final RoleCatalog roleCatalog;
+    private final NotificationOutboxService notificationOutboxService;
+    private final Validator validator;
+    private final ObjectReader recordReader;
+    private final PasswordEncoder hashingEncoder;
+    private final ForkJoinPool hashingPool;
+
+    @Value("${user.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${verification.account.ttl:7d}")
+    private Duration accountVerificationTtl;
+
+    public UserImportService(
+            JdbcTemplate jdbcTemplate,
+            IdGeneratorRepository idGeneratorRepository,
+            TransactionTemplate transactionTemplate,
+            UserJpaRepository userRepository,
+            RoleCatalog roleCatalog,
+            NotificationOutboxService notificationOutboxService,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PasswordEncoder passwordEncoder,
+            @Value("${user.import.hashing-parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int hashingParallelism
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.idGeneratorRepository = idGeneratorRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.userRepository = userRepository;
+        this.roleCatalog = roleCatalog;
+        this.notificationOutboxService = notificationOutboxService;
+        this.validator = validator;
+        this.recordReader = objectMapper.readerFor(UserCreateRequestDto.class);
+        this.hashingEncoder = (passwordEncoder instanceof BoundedPasswordEncoder bounded) ? bounded.getDelegate() : passwordEncoder;
+        this.hashingPool = new ForkJoinPool(Math.max(1, hashingParallelism));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashingPool.shutdownNow();
+    }
+
+    /**
+     * Importa os usuários do stream informado.
+     *
+     * @param in conteúdo em UTF-8; não é fechado.
+     * @param format formato das linhas.
+     * @param baseUrl URL base da aplicação usada nos links de verificação, ex.: {@code https://securecapita.org}.
+     * @return totais de importados, ignorados (e-mail já cadastrado ou repetido) e rejeitados, com os primeiros erros.
+     */
+    public UserImportResultDto importUsers(InputStream in, DataFormat format, String baseUrl) throws IOException {
+        Role role = roleCatalog.findByName(ROLE_USER.name())
+                .orElseThrow(() -> new RoleNotFoundByNameException(ROLE_USER.name()));
+        ImportReport report = new ImportReport();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Map<String, Integer> csvHeader = null;
+        List<ImportRow> chunk = new ArrayList<>(batchSize);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == DataFormat.CSV && csvHeader == null) {
+                csvHeader = parseCsvHeader(line);
+                continue;
+            }
+            try {
+                UserCreateRequestDto record = (format == DataFormat.CSV) ? toRecord(parseCsvLine(line), csvHeader) : recordReader.readValue(line);
+                chunk.add(new ImportRow(lineNumber, record));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                report.reject(lineNumber, "malformed record");
+            }
+            if (chunk.size() >= batchSize) {
+                this.importChunk(chunk, role, baseUrl, report);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            this.importChunk(chunk, role, baseUrl, report);
+        }
+        log.info("User import finished: {} imported, {} skipped, {} rejected.", report.imported, report.skipped, report.rejected);
+        return report.toDto();
+    }
+
+    private void importChunk(List<ImportRow> chunk, Role role, String baseUrl, ImportReport report) {
+        Map<String, ImportRow> rowsByEmail = new LinkedHashMap<>();
+        for (ImportRow row : chunk) {
+            Set<ConstraintViolation<UserCreateRequestDto>> violations = validator.validate(row.record());
+            if (!violations.isEmpty()) {
+                report.reject(row.line(), violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" ")));
+            } else if (rowsByEmail.putIfAbsent(row.record().email().toLowerCase(Locale.ROOT), row) != null) {
+                report.skipped++;
+            }
+        }
+        if (rowsByEmail.isEmpty()) {
+            return;
+        }
+        for (String existing : userRepository.findExistingEmails(rowsByEmail.keySet())) {
+            if (rowsByEmail.remove(existing.toLowerCase(Locale.ROOT)) != null) {
+                report.skipped++;
+            }
+        }
+        if (rowsByEmail.isEmpty()) {
+            return;
+        }
+
+        List<NewUser> users = this.hashPasswords(rowsByEmail);
+        try {
+            this.insert(users, role, baseUrl);
+            report.imported += users.size();
+        } catch (DataAccessException e) {
+            log.warn("User import batch starting at line {} failed: {}", users.getFirst().line(), e.getMessage());
+            for (NewUser user : users) {
+                report.reject(user.line(), "batch rejected by the database");
+            }
+        }
+    }
+
+    private List<NewUser> hashPasswords(Map<String, ImportRow> rowsByEmail) {
+        try {
+            return hashingPool.submit(() -> rowsByEmail.entrySet().parallelStream()
+                    .map(entry -> new NewUser(entry.getValue().line(), entry.getKey(), entry.getValue().record(),
+                            hashingEncoder.encode(entry.getValue().record().password())))
+                    .toList()
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("User import interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed during user import.", e.getCause());
+        }
+    }
+
+    private void insert(List<NewUser> users, Role role, String baseUrl) {
+        long firstUserId = idGeneratorRepository.allocate(USERS_ID_GENERATOR, users.size());
+        long firstVerificationId = idGeneratorRepository.allocate(ACCOUNT_VERIFICATIONS_ID_GENERATOR, users.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            Timestamp expiration = Timestamp.valueOf(LocalDateTime.now().plus(accountVerificationTtl));
+            List<Object[]> userRows = new ArrayList<>(users.size());
+            List<Object[]> roleRows = new ArrayList<>(users.size());
+            List<Object[]> verificationRows = new ArrayList<>(users.size());
+            List<PendingAccountVerification> notifications = new ArrayList<>(users.size());
+            for (int i = 0; i < users.size(); i++) {
+                NewUser user = users.get(i);
+                long userId = firstUserId + i;
+                long verificationId = firstVerificationId + i;
+                String token = UUID.randomUUID().toString();
+                String verificationUrl = baseUrl + "/users/verify/account/" + token;
+                userRows.add(new Object[]{userId, user.record().firstName(), user.record().lastName(), user.email(), user.passwordHash(), now});
+                roleRows.add(new Object[]{userId, role.getId()});
+                verificationRows.add(new Object[]{verificationId, userId, verificationUrl, Sha256Hashes.hash(token), expiration});
+                notifications.add(new PendingAccountVerification(user.email(), user.record().firstName(), verificationId, verificationUrl));
+            }
+            jdbcTemplate.batchUpdate(INSERT_USER_SQL, userRows);
+            jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, roleRows);
+            jdbcTemplate.batchUpdate(INSERT_ACCOUNT_VERIFICATION_SQL, verificationRows);
+            notificationOutboxService.enqueueAccountVerificationUrls(notifications);
+        });
+    }
+
+    private static Map<String, Integer> parseCsvHeader(String line) {
+        List<String> columns = parseCsvLine(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            header.put(columns.get(i).trim(), i);
+        }
+        if (!header.keySet().containsAll(CSV_COLUMNS)) {
+            throw new InvalidImportFileException("CSV header must contain the columns " + CSV_COLUMNS + ".");
+        }
+        return header;
+    }
+
+    private static UserCreateRequestDto toRecord(List<String> fields, Map<String, Integer> header) {
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields, found " + fields.size() + ".");
+        }
+        return new UserCreateRequestDto(
+                fields.get(header.get("firstName")),
+                fields.get(header.get("lastName")),
+                fields.get(header.get("email")),
+                fields.get(header.get("password"))
+        );
+    }
+
+    /**
+     * Divide uma linha CSV (RFC 4180, sem quebras de linha dentro de campos).
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quoted field.");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRow(long line, UserCreateRequestDto record) {
+    }
+
+    private record NewUser(long line, String email, UserCreateRequestDto record, String passwordHash) {
+    }
+
+    private static final class ImportReport {
+
+        private long imported;
+        private long skipped;
+        private long rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(long line, String reason) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add("line " + line + ": " + reason);
+            }
+        }
+
+        private UserImportResultDto toDto() {
+            return new UserImportResultDto(imported, skipped, rejected, List.copyOf(errors));
+        }
+    }
+}
@@ -1,23 +1,36 @@
 package io.github.joaovitorleal.securecapita.service;
 
 import io.github.joaovitorleal.securecapita.domain.*;
-import io.github.joaovitorleal.securecapita.domain.enums.MfaType;
+import io.github.joaovitorleal.securecapita.domain.enums.EventType;
 import io.github.joaovitorleal.securecapita.domain.enums.VerificationType;
 import io.github.joaovitorleal.securecapita.dto.UserCreateRequestDto;
+import io.github.joaovitorleal.securecapita.dto.UserPageDto;
 import io.github.joaovitorleal.securecapita.dto.UserResponseDto;
+import io.github.joaovitorleal.securecapita.dto.UserSearchCriteria;
 import io.github.joaovitorleal.securecapita.dto.UserUpdateRequestDto;
 import io.github.joaovitorleal.securecapita.exception.*;
 import io.github.joaovitorleal.securecapita.mapper.UserMapper;
 import io.github.joaovitorleal.securecapita.repository.*;
+import io.github.joaovitorleal.securecapita.security.crypto.Sha256Hashes;
+import io.github.joaovitorleal.securecapita.security.provider.RefreshTokenStore;
+import io.github.joaovitorleal.securecapita.security.provider.TokenRevocationList;
+import io.github.joaovitorleal.securecapita.security.ratelimit.RateLimitStore;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import static io.github.joaovitorleal.securecapita.domain.enums.RoleType.ROLE_USER;
@@ -26,36 +39,66 @@ import static io.github.joaovitorleal.securecapita.domain.enums.RoleType.ROLE_US
 @Slf4j
 public class UserService {
 
+    private static final String CURSOR_SEPARATOR = "|";
+    private static final String LOGIN_FAILURES_PREFIX = "login-failures|";
+
     private final UserJpaRepository userRepository;
-    private final RoleJpaRepository roleRepository;
+    private final RoleCatalog roleCatalog;
     private final AccountVerificationJpaRepository accountVerificationRepository;
     private final MfaVerificationJpaRepository mfaVerificationRepository;
     private final ResetPasswordVerificationJpaRepository resetPasswordVerificationRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder encoder;
-    private final NotificationService emailService;
-    private final NotificationService smsService;
+    private final NotificationOutboxService notificationOutboxService;
+    private final UserSnapshotCache userSnapshotCache;
+    private final AuditService auditService;
+    private final UserQueryRepository userQueryRepository;
+    private final RateLimitStore rateLimitStore;
+    private final RefreshTokenStore refreshTokenStore;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${verification.account.ttl:7d}")
+    private Duration accountVerificationTtl;
+
+    @Value("${security.lockout.enabled:true}")
+    private boolean lockoutEnabled;
+
+    @Value("${security.lockout.max-failures:10}")
+    private int lockoutMaxFailures;
+
+    @Value("${security.lockout.window:15m}")
+    private Duration lockoutWindow;
 
     public UserService(
             UserJpaRepository userRepository,
-            RoleJpaRepository roleRepository,
+            RoleCatalog roleCatalog,
             AccountVerificationJpaRepository accountVerificationRepository,
             MfaVerificationJpaRepository mfaVerificationRepository,
             ResetPasswordVerificationJpaRepository resetPasswordVerificationRepository,
             UserMapper userMapper,
             PasswordEncoder encoder,
-            NotificationService emailService,
-            NotificationService smsService
+            NotificationOutboxService notificationOutboxService,
+            UserSnapshotCache userSnapshotCache,
+            AuditService auditService,
+            UserQueryRepository userQueryRepository,
+            RateLimitStore rateLimitStore,
+            RefreshTokenStore refreshTokenStore,
+            TokenRevocationList tokenRevocationList
     ) {
         this.userRepository = userRepository;
-        this.roleRepository = roleRepository;
+        this.roleCatalog = roleCatalog;
         this.accountVerificationRepository = accountVerificationRepository;
         this.mfaVerificationRepository = mfaVerificationRepository;
         this.resetPasswordVerificationRepository = resetPasswordVerificationRepository;
         this.userMapper = userMapper;
         this.encoder = encoder;
-        this.emailService = emailService;
-        this.smsService = smsService;
+        this.notificationOutboxService = notificationOutboxService;
+        this.userSnapshotCache = userSnapshotCache;
+        this.auditService = auditService;
+        this.userQueryRepository = userQueryRepository;
+        this.rateLimitStore = rateLimitStore;
+        this.refreshTokenStore = refreshTokenStore;
+        this.tokenRevocationList = tokenRevocationList;
     }
 
     @Transactional
@@ -68,19 +111,19 @@ public class UserService {
         user.setEmail(emailLower);
         user.setPassword(encoder.encode(user.getPassword()));
 
-        Role role = roleRepository.findByName(ROLE_USER.name())
+        Role role = roleCatalog.findByName(ROLE_USER.name())
                 .orElseThrow(() -> {
-                    log.warn("No role found with name: {}", user.getRole().getName());
-                    return new RoleNotFoundByNameException(user.getRole().getName());
+                    log.warn("No role found with name: {}", ROLE_USER.name());
+                    return new RoleNotFoundByNameException(ROLE_USER.name());
                 });
         user.setRole(role);
 
         User createdUser = userRepository.save(user);
 
-        String verificationUrl = this.buildVerificationUrl(UUID.randomUUID().toString(), VerificationType.ACCOUNT.getType());
-        AccountVerification accountVerification = new AccountVerification(user, verificationUrl);
-        accountVerificationRepository.save(accountVerification);
-        emailService.sendAccountVerificationUrl(user.getFirstName(), user.getEmail(), verificationUrl);
+        String token = UUID.randomUUID().toString();
+        String verificationUrl = this.buildVerificationUrl(token, VerificationType.ACCOUNT.getType());
+        AccountVerification accountVerification = accountVerificationRepository.save(new AccountVerification(user, verificationUrl, Sha256Hashes.hash(token), this.accountVerificationExpiration()));
+        notificationOutboxService.enqueueAccountVerificationUrl(user, accountVerification.getId(), verificationUrl);
         return userMapper.toResponseDto(createdUser);
     }
 
@@ -92,9 +135,70 @@ public class UserService {
         );
     }
 
+    /**
+     * Lista usuários do mais recente para o mais antigo com paginação por chave em {@code (created_at, id)}.
+     * Busca {@code limit + 1} linhas para saber se há próxima página sem um COUNT.
+     *
+     * @param criteria filtros opcionais.
+     * @param cursor cursor opaco devolvido pela página anterior; nulo ou vazio na primeira página.
+     * @param limit tamanho da página.
+     * @throws InvalidPageCursorException se o cursor não foi gerado por esta API.
+     */
     @Transactional(readOnly = true)
+    public UserPageDto listUsers(UserSearchCriteria criteria, String cursor, int limit) {
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = this.decodeCursor(cursor);
+            afterCreatedAt = LocalDateTime.parse(position[0]);
+            afterId = Long.parseLong(position[1]);
+        }
+        List<UserResponseDto> users = userQueryRepository.findPage(criteria, afterCreatedAt, afterId, limit + 1);
+        if (users.size() <= limit) {
+            return new UserPageDto(users, null);
+        }
+        List<UserResponseDto> page = users.subList(0, limit);
+        UserResponseDto last = page.getLast();
+        return new UserPageDto(List.copyOf(page), this.encodeCursor(last.createdAt(), last.id()));
+    }
+
+    /**
+     * Registra uma falha de autenticação (senha ou código MFA incorretos) e bloqueia a conta ({@code non_locked = false})
+     * quando as falhas excedem {@code security.lockout.max-failures} dentro de {@code security.lockout.window}.
+     * A contagem usa o {@link RateLimitStore} configurado, então vale para todas as instâncias quando ele é compartilhado.
+     * A conta é desbloqueada pela redefinição de senha.
+     *
+     * @param email e-mail informado na tentativa; pode não pertencer a nenhum usuário.
+     */
+    @Transactional
+    public void recordLoginFailure(String email) {
+        if (!lockoutEnabled || email == null) {
+            return;
+        }
+        String emailLower = email.trim().toLowerCase(Locale.ROOT);
+        if (rateLimitStore.tryAcquire(LOGIN_FAILURES_PREFIX + emailLower, lockoutMaxFailures, lockoutWindow) == 0) {
+            return;
+        }
+        if (userRepository.lockByEmail(emailLower) > 0) {
+            userSnapshotCache.invalidate(emailLower);
+            log.warn("Account {} locked after more than {} failed login attempts within {}.", emailLower, lockoutMaxFailures, lockoutWindow);
+        }
+    }
+
+    /**
+     * Zera a contagem de falhas de autenticação após um login concluído (inclusive a etapa MFA).
+     */
+    public void recordLoginSuccess(String email) {
+        if (lockoutEnabled) {
+            rateLimitStore.reset(LOGIN_FAILURES_PREFIX + email.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * Busca o usuário pelo snapshot em cache ({@link UserSnapshotCache}), consultando o banco apenas em caso de miss.
+     */
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
+        return userSnapshotCache.get(email, userRepository::findByEmail)
                         .orElseThrow(() -> new UserNotFoundByEmailException(email));
     }
 
@@ -102,6 +206,7 @@ public class UserService {
     public UserResponseDto updateUser(Long userId, UserUpdateRequestDto userUpdateRequestDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundByIdException(userId));
+        userSnapshotCache.invalidate(user.getEmail());
 
         if (userUpdateRequestDto.firstName() != null) user.setFirstName(userUpdateRequestDto.firstName());
         if (userUpdateRequestDto.lastName() != null) user.setLastName(userUpdateRequestDto.lastName());
@@ -120,22 +225,28 @@ public class UserService {
 
                 user.setEmail(newEmailLower);
                 user.setEnabled(false);
-                String verificationUrl = this.buildVerificationUrl(UUID.randomUUID().toString(), VerificationType.ACCOUNT.getType());
+                userSnapshotCache.invalidate(newEmailLower);
+                String token = UUID.randomUUID().toString();
+                String verificationUrl = this.buildVerificationUrl(token, VerificationType.ACCOUNT.getType());
                 accountVerificationRepository.deleteByUserId(user.getId());
-                accountVerificationRepository.save(new AccountVerification(user, verificationUrl));
-                emailService.sendAccountVerificationUrl(user.getFirstName(), user.getEmail(), verificationUrl);
+                AccountVerification accountVerification = accountVerificationRepository.save(new AccountVerification(user, verificationUrl, Sha256Hashes.hash(token), this.accountVerificationExpiration()));
+                notificationOutboxService.enqueueAccountVerificationUrl(user, accountVerification.getId(), verificationUrl);
             }
         }
 
-        return userMapper.toResponseDto(userRepository.save(user));
+        User updatedUser = userRepository.save(user);
+        auditService.publish(EventType.PROFILE_UPDATE, updatedUser.getEmail());
+        return userMapper.toResponseDto(updatedUser);
     }
 
     @Transactional
     public void deleteUserById(Long userId) {
-        if (userRepository.existsById(userId)){
-            throw new UserNotFoundByIdException(userId);
-        }
-        userRepository.deleteById(userId);
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundByIdException(userId));
+        userRepository.delete(user);
+        userSnapshotCache.invalidate(user.getEmail());
+        refreshTokenStore.revokeAll(user.getEmail());
+        tokenRevocationList.revokeSubject(user.getEmail());
     }
 
     @Transactional
@@ -145,14 +256,9 @@ public class UserService {
         mfaVerificationRepository.deleteByUserId(userResponseDto.id());
         User existingUser = userRepository.findById(userResponseDto.id())
                 .orElseThrow(() -> new UserNotFoundByIdException(userResponseDto.id()));
-        mfaVerificationRepository.save(new MfaVerification(existingUser, code, expirationDate));
-        if (userResponseDto.mfaType().equals(MfaType.SMS)) {
-            smsService.sendMfaCode(existingUser.getFirstName(), existingUser.getPhone(), code);
-            log.info("MFA code sent to phone: {}", existingUser.getPhone());
-        } else {
-            emailService.sendMfaCode(existingUser.getFirstName(), existingUser.getEmail(), code);
-            log.info("MFA Code sent to email: {}", existingUser.getEmail());
-        }
+        MfaVerification mfaVerification = mfaVerificationRepository.save(new MfaVerification(existingUser, code, expirationDate));
+        notificationOutboxService.enqueueMfaCode(existingUser, mfaVerification.getId(), code);
+        log.info("MFA code queued for user {} via {}", existingUser.getId(), existingUser.getMfaType());
     }
 
     @Transactional
@@ -189,9 +295,10 @@ public class UserService {
                 .orElseThrow(() -> new UserNotFoundByEmailException(email));
         resetPasswordVerificationRepository.deleteByUserId(user.getId());
         LocalDateTime expirationDate = LocalDateTime.now().plusMinutes(10).truncatedTo(ChronoUnit.SECONDS);
-        String verificationUrl = buildVerificationUrl(UUID.randomUUID().toString(), VerificationType.PASSWORD.getType());
-        resetPasswordVerificationRepository.save(new ResetPasswordVerification(user, verificationUrl, expirationDate));
-        emailService.sendResetPasswordUrl(user.getFirstName(), user.getEmail(), verificationUrl);
+        String token = UUID.randomUUID().toString();
+        String verificationUrl = buildVerificationUrl(token, VerificationType.PASSWORD.getType());
+        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.save(new ResetPasswordVerification(user, verificationUrl, Sha256Hashes.hash(token), expirationDate));
+        notificationOutboxService.enqueueResetPasswordUrl(user, resetPasswordVerification.getId(), verificationUrl);
     }
 
 
@@ -205,7 +312,8 @@ public class UserService {
      * */
     @Transactional
     public UserResponseDto verifyResetPasswordKey(String key) {
-        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByUrl(this.buildVerificationUrl(key, VerificationType.PASSWORD.getType()))
+        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByTokenHash(Sha256Hashes.hash(key))
+                .filter(verification -> Sha256Hashes.matches(verification.getTokenHash(), key))
                 .orElseThrow(() -> new ResetPasswordVerificationInvalidException("This reset link is invalid or has already been used."));
         if (resetPasswordVerification.getExpirationDate().isBefore(LocalDateTime.now())) {
             resetPasswordVerificationRepository.delete(resetPasswordVerification);
@@ -229,7 +337,8 @@ public class UserService {
         if (!newPassword.equals(confirmPassword)) {
             throw new PasswordMismatchException("Passwords do not match.");
         }
-        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByUrl(this.buildVerificationUrl(key, VerificationType.PASSWORD.getType()))
+        ResetPasswordVerification resetPasswordVerification = resetPasswordVerificationRepository.findByTokenHash(Sha256Hashes.hash(key))
+                .filter(verification -> Sha256Hashes.matches(verification.getTokenHash(), key))
                 .orElseThrow(() -> new ResetPasswordVerificationInvalidException("This reset link is invalid or has already been used."));
         if (resetPasswordVerification.getExpirationDate().isBefore(LocalDateTime.now())) {
             resetPasswordVerificationRepository.delete(resetPasswordVerification);
@@ -237,9 +346,15 @@ public class UserService {
         }
         User user = resetPasswordVerification.getUser();
         user.setPassword(encoder.encode(newPassword));
+        user.setNonLocked(true);
         userRepository.save(user);
+        userSnapshotCache.invalidate(user.getEmail());
+        rateLimitStore.reset(LOGIN_FAILURES_PREFIX + user.getEmail().toLowerCase(Locale.ROOT));
+        refreshTokenStore.revokeAll(user.getEmail());
+        tokenRevocationList.revokeSubject(user.getEmail());
         resetPasswordVerificationRepository.delete(resetPasswordVerification);
-        emailService.sendResetPasswordConfirmationMessage(user.getFirstName(), user.getEmail());
+        notificationOutboxService.enqueueResetPasswordConfirmation(user, resetPasswordVerification.getId());
+        auditService.publish(EventType.PASSWORD_UPDATE, user.getEmail());
     }
 
     /**
@@ -247,22 +362,52 @@ public class UserService {
      *
      * @param key UUID/chave presente na URL de verificação.
      * @return true se a conta acabou de ser habilitava ou false se já estava habilitada.
-     * @throws AccountVerificationNotFoundByUrl Se a URL de verificação não for encontrada.
+     * @throws AccountVerificationNotFoundByUrl Se a URL de verificação não for encontrada ou estiver expirada.
      * */
     @Transactional
     public boolean activateAccount(String key) {
-        User user = accountVerificationRepository.findByUrl(this.buildVerificationUrl(key, VerificationType.ACCOUNT.getType()))
-                .orElseThrow(() -> new AccountVerificationNotFoundByUrl("This link is not valid."))
-                .getUser();
+        AccountVerification accountVerification = accountVerificationRepository.findByTokenHash(Sha256Hashes.hash(key))
+                .filter(verification -> Sha256Hashes.matches(verification.getTokenHash(), key))
+                .orElseThrow(() -> new AccountVerificationNotFoundByUrl("This link is not valid."));
+        if (accountVerification.getExpirationDate().isBefore(LocalDateTime.now())) {
+            accountVerificationRepository.delete(accountVerification);
+            throw new AccountVerificationNotFoundByUrl("This link has expired.");
+        }
+        User user = accountVerification.getUser();
         if (!user.isEnabled()) {
             user.setEnabled(true);
             userRepository.save(user);
-            emailService.sendAccountVerifiedMessage(user.getFirstName(), user.getEmail());
+            userSnapshotCache.invalidate(user.getEmail());
+            notificationOutboxService.enqueueAccountVerifiedMessage(user, accountVerification.getId());
             return true;
         }
         return false;
     }
 
+    private String encodeCursor(LocalDateTime createdAt, Long id) {
+        String position = createdAt + CURSOR_SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\" + CURSOR_SEPARATOR, -1);
+            if (parts.length != 2) {
+                throw new InvalidPageCursorException("Invalid page cursor.");
+            }
+            LocalDateTime.parse(parts[0]);
+            Long.parseLong(parts[1]);
+            return parts;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageCursorException("Invalid page cursor.");
+        }
+    }
+
+    private LocalDateTime accountVerificationExpiration() {
+        return LocalDateTime.now().plus(accountVerificationTtl).truncatedTo(ChronoUnit.SECONDS);
+    }
+
     private String buildVerificationUrl(String token, String type) {
         return ServletUriComponentsBuilder
                 .fromCurrentContextPath()
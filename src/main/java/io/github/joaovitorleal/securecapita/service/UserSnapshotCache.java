@@ -0,0 +1,127 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache limitado, com TTL, de snapshots de {@link User} usados na autenticação (login e refresh token).
+ * <p>
+ * A chave é o e-mail em minúsculas. Cada leitura devolve uma cópia destacada do snapshot, de modo que alterações feitas
+ * pelo chamador não vazam para o cache. Toda escrita em usuários deve chamar {@link #invalidate(String)}: a entrada é
+ * removida imediatamente e de novo após o commit, para descartar um snapshot antigo recarregado por uma leitura
+ * concorrente antes do commit. A invalidação também é publicada para os demais nós pelo
+ * {@link UserCacheInvalidationBroadcaster}, exceto com {@code user.cache.invalidation.enabled=false}.
+ */
+@Component
+public class UserSnapshotCache {
+
+    private static final String CACHE_NAME = "userSnapshots";
+
+    private final Cache<String, User> cache;
+    private final Optional<UserCacheInvalidationBroadcaster> broadcaster;
+
+    public UserSnapshotCache(
+            @Value("${user.cache.maximum-size:10000}") long maximumSize,
+            @Value("${user.cache.ttl:5m}") Duration ttl,
+            Optional<UserCacheInvalidationBroadcaster> broadcaster,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.broadcaster = broadcaster;
+        broadcaster.ifPresent(b -> b.subscribe(this::invalidateLocal, this::invalidateAllLocal));
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    /**
+     * Retorna o snapshot em cache ou carrega pelo {@code loader}. Usuários inexistentes não são armazenados.
+     *
+     * @param email e-mail do usuário (qualquer caixa).
+     * @param loader consulta ao banco, executada apenas em caso de miss.
+     * @return cópia do usuário, se existir.
+     */
+    public Optional<User> get(String email, Function<String, Optional<User>> loader) {
+        String key = key(email);
+        User snapshot = cache.getIfPresent(key);
+        if (snapshot == null) {
+            Optional<User> loaded = loader.apply(email);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            snapshot = copyOf(loaded.get());
+            cache.put(key, snapshot);
+        }
+        return Optional.of(copyOf(snapshot));
+    }
+
+    /**
+     * Remove o usuário do cache local agora e após o commit da transação corrente, e publica a invalidação para os
+     * demais nós quando habilitado.
+     *
+     * @param email e-mail do usuário (qualquer caixa); ignorado se nulo.
+     */
+    public void invalidate(String email) {
+        if (email == null) {
+            return;
+        }
+        String key = key(email);
+        cache.invalidate(key);
+        broadcaster.ifPresent(b -> b.publish(key));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(key);
+                }
+            });
+        }
+    }
+
+    private void invalidateLocal(String key) {
+        cache.invalidate(key);
+    }
+
+    private void invalidateAllLocal() {
+        cache.invalidateAll();
+    }
+
+    private static String key(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+                .id(user.getId())
+                .firstName(user.getFirstName())
+                .lastName(user.getLastName())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .phone(user.getPhone())
+                .address(user.getAddress())
+                .title(user.getTitle())
+                .bio(user.getBio())
+                .enabled(user.isEnabled())
+                .nonLocked(user.isNonLocked())
+                .usingMfa(user.isUsingMfa())
+                .mfaType(user.getMfaType())
+                .imageUrl(user.getImageUrl())
+                .createdAt(user.getCreatedAt())
+                .role(user.getRole())
+                .build();
+    }
+}
@@ -0,0 +1,182 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.github.joaovitorleal.securecapita.repository.AccountVerificationJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.MfaVerificationJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.NotificationOutboxJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.ResetPasswordVerificationJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Remove periodicamente as verificações expiradas (MFA, redefinição de senha e ativação de conta) e as mensagens
+ * finalizadas antigas da outbox de notificações.
+ * <p>
+ * Cada tabela é varrida em blocos de {@code chunk-size} ids, selecionados pelo índice de expiração a partir das linhas
+ * mais antigas e apagados por chave primária, cada bloco em sua própria transação curta, com uma pausa entre blocos.
+ * Assim nenhum DELETE mantém locks por muito tempo. Cada bloco é uma tarefa separada no {@link TaskScheduler}, agendada
+ * {@code pause} depois da anterior: a varredura nunca dorme ocupando uma thread do agendador, compartilhado com as
+ * consultas periódicas de revogação, rate limit e cache. Uma execução que encontra a anterior ainda em andamento é
+ * ignorada. Métricas: {@code securecapita.sweeper.deleted{table}} e {@code securecapita.sweeper.duration{table}}.
+ */
+@Service
+@Slf4j
+public class VerificationExpirySweeper {
+
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final List<SweepTarget> targets;
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    @Value("${verification.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${verification.sweeper.pause:100ms}")
+    private Duration pause;
+
+    @Value("${verification.sweeper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    public VerificationExpirySweeper(
+            TransactionTemplate transactionTemplate,
+            TaskScheduler taskScheduler,
+            MfaVerificationJpaRepository mfaVerificationRepository,
+            ResetPasswordVerificationJpaRepository resetPasswordVerificationRepository,
+            AccountVerificationJpaRepository accountVerificationRepository,
+            NotificationOutboxJpaRepository outboxRepository,
+            @Value("${notification.outbox.retention:7d}") Duration outboxRetention,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionTemplate = transactionTemplate;
+        this.taskScheduler = taskScheduler;
+        this.targets = List.of(
+                new SweepTarget("mfa_verifications", LocalDateTime::now,
+                        mfaVerificationRepository::findExpiredIds, mfaVerificationRepository::deleteByIds, meterRegistry),
+                new SweepTarget("reset_password_verifications", LocalDateTime::now,
+                        resetPasswordVerificationRepository::findExpiredIds, resetPasswordVerificationRepository::deleteByIds, meterRegistry),
+                new SweepTarget("account_verifications", LocalDateTime::now,
+                        accountVerificationRepository::findExpiredIds, accountVerificationRepository::deleteByIds, meterRegistry),
+                new SweepTarget("notification_outbox", () -> LocalDateTime.now().minus(outboxRetention),
+                        outboxRepository::findFinishedIdsBefore, outboxRepository::deleteByIds, meterRegistry)
+        );
+    }
+
+    @Scheduled(
+            initialDelayString = "${verification.sweeper.initial-delay:1m}",
+            fixedDelayString = "${verification.sweeper.interval:5m}"
+    )
+    public void sweep() {
+        if (sweeping.compareAndSet(false, true)) {
+            this.sweepChunk(new SweepRun());
+        }
+    }
+
+    /**
+     * Apaga um bloco da tabela corrente e agenda o próximo passo: outro bloco da mesma tabela após {@code pause}, se
+     * este veio cheio e o limite por execução não foi atingido, ou a tabela seguinte.
+     */
+    private void sweepChunk(SweepRun run) {
+        SweepTarget target = targets.get(run.target);
+        boolean more = false;
+        try {
+            Integer removed = transactionTemplate.execute(status -> {
+                List<Long> ids = target.findExpired().apply(run.cutoff, Limit.of(chunkSize));
+                return ids.isEmpty() ? 0 : target.delete().apply(ids);
+            });
+            int count = (removed == null) ? 0 : removed;
+            run.deleted += count;
+            target.deleted().increment(count);
+            more = count >= chunkSize && ++run.chunks < maxChunksPerRun;
+        } catch (RuntimeException e) {
+            log.warn("Expiry sweeper failed on {}: {}", target.table(), e.getMessage());
+        }
+        if (!more) {
+            target.timer().record(System.nanoTime() - run.startedNanos, TimeUnit.NANOSECONDS);
+            if (run.deleted > 0) {
+                log.info("Expiry sweeper removed {} rows from {}.", run.deleted, target.table());
+            }
+            if (!run.nextTarget()) {
+                sweeping.set(false);
+                return;
+            }
+        }
+        try {
+            taskScheduler.schedule(() -> this.sweepChunk(run), Instant.now().plus(more ? pause : Duration.ZERO));
+        } catch (RuntimeException e) {
+            sweeping.set(false);
+            log.warn("Expiry sweeper could not schedule its next chunk: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Progresso de uma execução da varredura: tabela corrente e blocos, linhas e tempo acumulados nela. Cada passo roda
+     * depois do anterior ter terminado, então não há acesso concorrente.
+     */
+    private final class SweepRun {
+
+        private int target;
+        private LocalDateTime cutoff;
+        private int chunks;
+        private long deleted;
+        private long startedNanos;
+
+        private SweepRun() {
+            this.start();
+        }
+
+        private boolean nextTarget() {
+            if (++target >= targets.size()) {
+                return false;
+            }
+            this.start();
+            return true;
+        }
+
+        private void start() {
+            cutoff = targets.get(target).cutoff().get();
+            chunks = 0;
+            deleted = 0;
+            startedNanos = System.nanoTime();
+        }
+    }
+
+    private record SweepTarget(
+            String table,
+            Supplier<LocalDateTime> cutoff,
+            BiFunction<LocalDateTime, Limit, List<Long>> findExpired,
+            Function<Collection<Long>, Integer> delete,
+            Counter deleted,
+            Timer timer
+    ) {
+
+        private SweepTarget(
+                String table,
+                Supplier<LocalDateTime> cutoff,
+                BiFunction<LocalDateTime, Limit, List<Long>> findExpired,
+                Function<Collection<Long>, Integer> delete,
+                MeterRegistry meterRegistry
+        ) {
+            this(table, cutoff, findExpired, delete,
+                    Counter.builder("securecapita.sweeper.deleted").tag("table", table).register(meterRegistry),
+                    Timer.builder("securecapita.sweeper.duration").tag("table", table).register(meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ *  Migração: busca das verificações pelo hash do token em vez da URL completa.
+ *  Adiciona token_hash = SHA-256 do token opaco (último segmento da URL), preenche as linhas existentes
+ *  e troca o índice único de url por token_hash.
+ */
+USE securecapita;
+
+ALTER TABLE account_verifications
+    ADD COLUMN token_hash BINARY(32) NULL AFTER url;
+
+UPDATE account_verifications
+SET token_hash = UNHEX(SHA2(SUBSTRING_INDEX(url, '/', -1), 256))
+WHERE token_hash IS NULL;
+
+ALTER TABLE account_verifications
+    MODIFY COLUMN token_hash BINARY(32) NOT NULL,
+    ADD CONSTRAINT uq_account_verifications_token_hash UNIQUE (token_hash),
+    DROP INDEX uq_account_verifications_url;
+
+ALTER TABLE reset_password_verifications
+    ADD COLUMN token_hash BINARY(32) NULL AFTER url;
+
+UPDATE reset_password_verifications
+SET token_hash = UNHEX(SHA2(SUBSTRING_INDEX(url, '/', -1), 256))
+WHERE token_hash IS NULL;
+
+ALTER TABLE reset_password_verifications
+    MODIFY COLUMN token_hash BINARY(32) NOT NULL,
+    ADD CONSTRAINT uq_reset_password_verifications_token_hash UNIQUE (token_hash),
+    DROP INDEX uq_reset_password_verifications_url;
@@ -0,0 +1,22 @@
+/*
+ *  Migração: expiração das verificações de conta e índices usados pelo VerificationExpirySweeper.
+ *  Verificações de conta existentes recebem 7 dias de validade a partir da migração.
+ */
+USE securecapita;
+
+ALTER TABLE account_verifications
+    ADD COLUMN expiration_date DATETIME NULL AFTER token_hash;
+
+UPDATE account_verifications
+SET expiration_date = NOW() + INTERVAL 7 DAY
+WHERE expiration_date IS NULL;
+
+ALTER TABLE account_verifications
+    MODIFY COLUMN expiration_date DATETIME NOT NULL,
+    ADD KEY idx_account_verifications_expiration_date (expiration_date);
+
+ALTER TABLE reset_password_verifications
+    ADD KEY idx_reset_password_verifications_expiration_date (expiration_date);
+
+ALTER TABLE mfa_verifications
+    ADD KEY idx_mfa_verifications_expiration_date (expiration_date);
@@ -0,0 +1,15 @@
+/*
+ *  Migração: popula o catálogo de tipos de eventos usado pela trilha de auditoria (user_events).
+ */
+USE securecapita;
+
+INSERT IGNORE INTO `events` (type, description)
+VALUES ('LOGIN_ATTEMPT', 'You tried to log in'),
+       ('LOGIN_ATTEMPT_FAILURE', 'You tried to log in and you failed'),
+       ('LOGIN_ATTEMPT_SUCCESS', 'You tried to log in and you succeeded'),
+       ('PROFILE_UPDATE', 'You updated your profile information'),
+       ('PROFILE_PICTURE_UPDATE', 'You updated your profile picture'),
+       ('ROLE_UPDATE', 'You updated your role and permissions'),
+       ('ACCOUNT_SETTINGS_UPDATE', 'You updated your account settings'),
+       ('PASSWORD_UPDATE', 'You updated your password'),
+       ('MFA_UPDATE', 'You updated your MFA settings');
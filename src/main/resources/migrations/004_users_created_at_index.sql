@@ -0,0 +1,7 @@
+/*
+ *  Migração: índice da listagem paginada de usuários (GET /users), que ordena e pagina por (created_at, id).
+ */
+USE securecapita;
+
+ALTER TABLE users
+    ADD KEY idx_users_created_at_id (created_at, id);
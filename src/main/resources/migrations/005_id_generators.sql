@@ -0,0 +1,20 @@
+/*
+ *  Migração: ids de users e das verificações passam a vir da tabela id_generators (@TableGenerator pooled-lo),
+ *  o que permite ao Hibernate agrupar os INSERTs em lotes JDBC. Cada contador começa após o maior id existente.
+ */
+USE securecapita;
+
+CREATE TABLE IF NOT EXISTS id_generators
+(
+    name     VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT      NOT NULL
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 1 FROM users
+UNION ALL
+SELECT 'account_verifications', COALESCE(MAX(id), 0) + 1 FROM account_verifications
+UNION ALL
+SELECT 'reset_password_verifications', COALESCE(MAX(id), 0) + 1 FROM reset_password_verifications
+UNION ALL
+SELECT 'mfa_verifications', COALESCE(MAX(id), 0) + 1 FROM mfa_verifications;
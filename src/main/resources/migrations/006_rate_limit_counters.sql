@@ -0,0 +1,16 @@
+/*
+ *  Migração: contadores de tentativas de login, verificação MFA e redefinição de senha compartilhados entre as
+ *  instâncias (security.rate-limit.store=jdbc). window_start e expires_at são epoch em milissegundos.
+ */
+USE securecapita;
+
+CREATE TABLE IF NOT EXISTS rate_limit_counters
+(
+    bucket_key   VARCHAR(191) NOT NULL,
+    window_start BIGINT       NOT NULL,
+    hits         INT          NOT NULL,
+    expires_at   BIGINT       NOT NULL,
+
+    PRIMARY KEY (bucket_key, window_start),
+    KEY idx_rate_limit_counters_expires_at (expires_at)
+) ENGINE = InnoDB;
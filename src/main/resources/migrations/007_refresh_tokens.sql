@@ -0,0 +1,18 @@
+/*
+ *  Migração: refresh tokens passam a ser registrados (SHA-256 do jti, família e expiração) para permitir rotação,
+ *  detecção de reuso e logout. Tokens emitidos antes desta migração não têm jti e deixam de ser aceitos.
+ */
+USE securecapita;
+
+CREATE TABLE IF NOT EXISTS refresh_tokens
+(
+    token_hash BINARY(32)   NOT NULL PRIMARY KEY,
+    family_id  BINARY(16)   NOT NULL,
+    user_email VARCHAR(100) NOT NULL,
+    expires_at DATETIME(3)  NOT NULL,
+    used       BOOLEAN      NOT NULL DEFAULT FALSE,
+
+    KEY idx_refresh_tokens_family_id (family_id),
+    KEY idx_refresh_tokens_user_email (user_email),
+    KEY idx_refresh_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
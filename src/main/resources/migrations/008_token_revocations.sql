@@ -0,0 +1,17 @@
+/*
+ *  Migração: access tokens passam a ter jti e sid (sessão) e podem ser revogados no logout, na redefinição de senha e
+ *  na troca de papel. Access tokens emitidos antes desta migração não têm sid e expiram normalmente em até 30 minutos.
+ */
+USE securecapita;
+
+CREATE TABLE IF NOT EXISTS token_revocations
+(
+    id             BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    revocation_key VARCHAR(191)    NOT NULL,
+    revoked_at     DATETIME(3)     NOT NULL,
+    expires_at     DATETIME(3)     NOT NULL,
+    created_at     DATETIME(3)     NOT NULL,
+
+    KEY idx_token_revocations_created_at (created_at),
+    KEY idx_token_revocations_expires_at (expires_at)
+) ENGINE = InnoDB;
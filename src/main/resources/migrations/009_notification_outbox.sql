@@ -0,0 +1,27 @@
+/*
+ *  Migração: outbox transacional das notificações (e-mail e SMS). O cadastro, a redefinição de senha e o envio de
+ *  código MFA gravam a mensagem na mesma transação da alteração; o NotificationOutboxDispatcher faz o envio.
+ *  Sem esta tabela o primeiro cadastro falha em bancos criados antes da outbox.
+ */
+USE securecapita;
+
+CREATE TABLE IF NOT EXISTS notification_outbox
+(
+    id              BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    channel         VARCHAR(10)     NOT NULL,
+    type            VARCHAR(50)     NOT NULL,
+    recipient       VARCHAR(100)    NOT NULL,
+    recipient_name  VARCHAR(40)     DEFAULT NULL,
+    content         VARCHAR(500)    DEFAULT NULL,
+    dedup_key       VARCHAR(191)    NOT NULL,
+    status          VARCHAR(20)     NOT NULL DEFAULT 'PENDING',
+    attempts        INT             NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME        NOT NULL,
+    last_error      VARCHAR(500)    DEFAULT NULL,
+    created_at      DATETIME        DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_notification_outbox_dedup_key UNIQUE (dedup_key),
+    CONSTRAINT chk_notification_outbox_channel CHECK (channel IN ('EMAIL', 'SMS')),
+    CONSTRAINT chk_notification_outbox_status CHECK (status IN ('PENDING', 'PROCESSING', 'SENT', 'FAILED')),
+    KEY idx_notification_outbox_status_next_attempt (status, next_attempt_at)
+) ENGINE = InnoDB;
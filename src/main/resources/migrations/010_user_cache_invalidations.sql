@@ -0,0 +1,14 @@
+/*
+ *  Migração: invalidações do cache de usuários (UserSnapshotCache) publicadas por cada instância e consultadas
+ *  periodicamente pelas demais (user.cache.invalidation.enabled). Linhas mais antigas que a retenção são apagadas.
+ */
+USE securecapita;
+
+CREATE TABLE IF NOT EXISTS user_cache_invalidations
+(
+    id         BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    email      VARCHAR(100)    NOT NULL,
+    created_at DATETIME(3)     NOT NULL,
+
+    KEY idx_user_cache_invalidations_created_at (created_at)
+) ENGINE = InnoDB;
@@ -0,0 +1,11 @@
+/*
+ *  Migração: bucket_key passa a ser o SHA-256 da chave do rate limit, com tamanho fixo; a chave pode conter um e-mail
+ *  arbitrário vindo do corpo da requisição, que não cabia em VARCHAR(191). Os contadores valem no máximo um
+ *  refill-period, então são descartados em vez de convertidos.
+ */
+USE securecapita;
+
+TRUNCATE TABLE rate_limit_counters;
+
+ALTER TABLE rate_limit_counters
+    MODIFY COLUMN bucket_key BINARY(32) NOT NULL;
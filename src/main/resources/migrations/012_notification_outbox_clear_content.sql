@@ -0,0 +1,10 @@
+/*
+ *  Migração: o content da outbox guarda códigos MFA e links de redefinição de senha em texto puro. O dispatcher passa
+ *  a apagá-lo quando a mensagem fica SENT ou FAILED; aqui são limpas as mensagens finalizadas antes dessa mudança.
+ */
+USE securecapita;
+
+UPDATE notification_outbox
+SET content = NULL
+WHERE status IN ('SENT', 'FAILED')
+  AND content IS NOT NULL;
@@ -23,6 +23,12 @@ DROP TABLE IF EXISTS user_events;
 DROP TABLE IF EXISTS account_verifications;
 DROP TABLE IF EXISTS reset_password_verifications;
 DROP TABLE IF EXISTS mfa_verifications;
+DROP TABLE IF EXISTS notification_outbox;
+DROP TABLE IF EXISTS user_cache_invalidations;
+DROP TABLE IF EXISTS id_generators;
+DROP TABLE IF EXISTS rate_limit_counters;
+DROP TABLE IF EXISTS refresh_tokens;
+DROP TABLE IF EXISTS token_revocations;
 
 SET FOREIGN_KEY_CHECKS = 1;
 
@@ -46,7 +52,8 @@ CREATE TABLE IF NOT EXISTS users
     created_at DATETIME        DEFAULT CURRENT_TIMESTAMP,
 
     CONSTRAINT uq_users_email UNIQUE (email),
-    CONSTRAINT chk_users_mfa_type CHECK (mfa_type IN ('EMAIL', 'SMS'))
+    CONSTRAINT chk_users_mfa_type CHECK (mfa_type IN ('EMAIL', 'SMS')),
+    KEY idx_users_created_at_id (created_at, id)
 ) ENGINE = InnoDB;
 
 -- Tabela de grupos de usuários e permissões
@@ -107,11 +114,14 @@ CREATE TABLE IF NOT EXISTS account_verifications
 (
     id      BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
     user_id BIGINT UNSIGNED NOT NULL,
-    url     VARCHAR(255)    NOT NULL,
+    url             VARCHAR(255)    NOT NULL,
+    token_hash      BINARY(32)      NOT NULL,
+    expiration_date DATETIME        NOT NULL,
 
     CONSTRAINT fk_account_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT uq_account_verifications_user_id UNIQUE (user_id),
-    CONSTRAINT uq_account_verifications_url UNIQUE (url)
+    CONSTRAINT uq_account_verifications_token_hash UNIQUE (token_hash),
+    KEY idx_account_verifications_expiration_date (expiration_date)
 ) ENGINE = InnoDB;
 
 CREATE TABLE IF NOT EXISTS reset_password_verifications
@@ -119,11 +129,13 @@ CREATE TABLE IF NOT EXISTS reset_password_verifications
     id              BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
     user_id         BIGINT UNSIGNED NOT NULL,
     url             VARCHAR(255)    NOT NULL,
+    token_hash      BINARY(32)      NOT NULL,
     expiration_date DATETIME        NOT NULL,
 
     CONSTRAINT fk_reset_password_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT uq_reset_password_verifications_user_id UNIQUE (user_id),
-    CONSTRAINT uq_reset_password_verifications_url UNIQUE (url)
+    CONSTRAINT uq_reset_password_verifications_token_hash UNIQUE (token_hash),
+    KEY idx_reset_password_verifications_expiration_date (expiration_date)
 ) ENGINE = InnoDB;
 
 CREATE TABLE IF NOT EXISTS mfa_verifications
@@ -135,15 +147,112 @@ CREATE TABLE IF NOT EXISTS mfa_verifications
 
     CONSTRAINT fk_mfa_verifications_users FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE ON UPDATE CASCADE,
     CONSTRAINT uq_mfa_verifications_user_id UNIQUE (user_id),
-    CONSTRAINT uq_mfa_verifications_code UNIQUE (code)
+    CONSTRAINT uq_mfa_verifications_code UNIQUE (code),
+    KEY idx_mfa_verifications_expiration_date (expiration_date)
+) ENGINE = InnoDB;
+
+-- Outbox de notificações, gravada na mesma transação das verificações e drenada pelo dispatcher
+CREATE TABLE IF NOT EXISTS notification_outbox
+(
+    id              BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    channel         VARCHAR(10)     NOT NULL,
+    type            VARCHAR(50)     NOT NULL,
+    recipient       VARCHAR(100)    NOT NULL,
+    recipient_name  VARCHAR(40)     DEFAULT NULL,
+    content         VARCHAR(500)    DEFAULT NULL, -- código MFA ou link de redefinição; apagado quando a mensagem fica SENT ou FAILED
+    dedup_key       VARCHAR(191)    NOT NULL,
+    status          VARCHAR(20)     NOT NULL DEFAULT 'PENDING',
+    attempts        INT             NOT NULL DEFAULT 0,
+    next_attempt_at DATETIME        NOT NULL,
+    last_error      VARCHAR(500)    DEFAULT NULL,
+    created_at      DATETIME        DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT uq_notification_outbox_dedup_key UNIQUE (dedup_key),
+    CONSTRAINT chk_notification_outbox_channel CHECK (channel IN ('EMAIL', 'SMS')),
+    CONSTRAINT chk_notification_outbox_status CHECK (status IN ('PENDING', 'PROCESSING', 'SENT', 'FAILED')),
+    KEY idx_notification_outbox_status_next_attempt (status, next_attempt_at)
+) ENGINE = InnoDB;
+
+-- Invalidações do cache de usuários, consultadas periodicamente por todas as instâncias
+CREATE TABLE IF NOT EXISTS user_cache_invalidations
+(
+    id         BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    email      VARCHAR(100)    NOT NULL,
+    created_at DATETIME(3)     NOT NULL,
+
+    KEY idx_user_cache_invalidations_created_at (created_at)
+) ENGINE = InnoDB;
+
+-- Próximo id livre das entidades com @TableGenerator (pooled-lo); o Hibernate reserva blocos de 50 ids por vez
+CREATE TABLE IF NOT EXISTS id_generators
+(
+    name     VARCHAR(64) NOT NULL PRIMARY KEY,
+    next_val BIGINT      NOT NULL
+) ENGINE = InnoDB;
+
+-- Contadores de tentativas por janela fixa, compartilhados entre instâncias (security.rate-limit.store=jdbc);
+-- bucket_key = SHA-256 da chave (endpoint, tipo e IP ou e-mail)
+CREATE TABLE IF NOT EXISTS rate_limit_counters
+(
+    bucket_key   BINARY(32)   NOT NULL,
+    window_start BIGINT       NOT NULL,
+    hits         INT          NOT NULL,
+    expires_at   BIGINT       NOT NULL,
+
+    PRIMARY KEY (bucket_key, window_start),
+    KEY idx_rate_limit_counters_expires_at (expires_at)
 ) ENGINE = InnoDB;
 
+-- Refresh tokens emitidos: SHA-256 do jti, família (tokens descendentes do mesmo login) e expiração
+CREATE TABLE IF NOT EXISTS refresh_tokens
+(
+    token_hash BINARY(32)   NOT NULL PRIMARY KEY,
+    family_id  BINARY(16)   NOT NULL,
+    user_email VARCHAR(100) NOT NULL,
+    expires_at DATETIME(3)  NOT NULL,
+    used       BOOLEAN      NOT NULL DEFAULT FALSE,
+
+    KEY idx_refresh_tokens_family_id (family_id),
+    KEY idx_refresh_tokens_user_email (user_email),
+    KEY idx_refresh_tokens_expires_at (expires_at)
+) ENGINE = InnoDB;
+
+-- Revogações de access tokens ('s|<sid>' por sessão, 'u|<email>' por usuário), consultadas periodicamente por todas as instâncias
+CREATE TABLE IF NOT EXISTS token_revocations
+(
+    id             BIGINT UNSIGNED NOT NULL AUTO_INCREMENT PRIMARY KEY,
+    revocation_key VARCHAR(191)    NOT NULL,
+    revoked_at     DATETIME(3)     NOT NULL,
+    expires_at     DATETIME(3)     NOT NULL,
+    created_at     DATETIME(3)     NOT NULL,
+
+    KEY idx_token_revocations_created_at (created_at),
+    KEY idx_token_revocations_expires_at (expires_at)
+) ENGINE = InnoDB;
+
+INSERT INTO id_generators (name, next_val)
+VALUES ('users', 1),
+       ('account_verifications', 1),
+       ('reset_password_verifications', 1),
+       ('mfa_verifications', 1);
+
 INSERT INTO roles (name, permission)
 VALUES ('ROLE_USER', 'READ:USER, READ:CUSTOMER'),
        ('ROLE_MANAGER', 'READ:USER, READ:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER'),
        ('ROLE_ADMIN', 'READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER'),
        ('ROLE_SYSADMIN', 'READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER');
 
+INSERT INTO `events` (type, description)
+VALUES ('LOGIN_ATTEMPT', 'You tried to log in'),
+       ('LOGIN_ATTEMPT_FAILURE', 'You tried to log in and you failed'),
+       ('LOGIN_ATTEMPT_SUCCESS', 'You tried to log in and you succeeded'),
+       ('PROFILE_UPDATE', 'You updated your profile information'),
+       ('PROFILE_PICTURE_UPDATE', 'You updated your profile picture'),
+       ('ROLE_UPDATE', 'You updated your role and permissions'),
+       ('ACCOUNT_SETTINGS_UPDATE', 'You updated your account settings'),
+       ('PASSWORD_UPDATE', 'You updated your password'),
+       ('MFA_UPDATE', 'You updated your MFA settings');
+
 
 
 
@@ -0,0 +1,125 @@
+package io.github.joaovitorleal.securecapita.benchmark;
+
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.security.filter.CustomAuthorizationFilter;
+import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.security.provider.TokenProvider;
+import io.github.joaovitorleal.securecapita.security.provider.TokenRevocationList;
+import io.github.joaovitorleal.securecapita.security.provider.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do {@link CustomAuthorizationFilter} por requisição autenticada.
+ * <p>
+ * {@code cachedToken} é o caso comum (token já verificado no {@link VerifiedTokenCache}); {@code uncachedToken} usa
+ * um cache que não retém entradas e mede a verificação HMAC completa; {@code anonymous} mede uma requisição sem token.
+ * Os dois primeiros incluem a consulta ao {@link TokenRevocationList}, populado com revogações de outros usuários.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorizationFilterBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+    private static final int REVOKED_USERS = 10_000;
+
+    private CustomAuthorizationFilter cachingFilter;
+    private CustomAuthorizationFilter nonCachingFilter;
+    private String authorizationHeader;
+
+    @Setup
+    public void setUp() {
+        Role role = new Role();
+        role.setName("ROLE_SYSADMIN");
+        role.setPermission("READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER");
+        User user = User.builder()
+                .email("benchmark@securecapita.org")
+                .role(role)
+                .build();
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TokenProvider tokenProvider = new TokenProvider(SECRET, meterRegistry);
+        TokenRevocationList revocationList = new TokenRevocationList(new NoOpJdbcTemplate(), 100_000, 0.01, Duration.ofSeconds(10));
+        for (int i = 0; i < REVOKED_USERS; i++) {
+            revocationList.revokeSubject("revoked-" + i + "@securecapita.org");
+        }
+        cachingFilter = new CustomAuthorizationFilter(tokenProvider, new VerifiedTokenCache(10_000, meterRegistry), revocationList, AuthorizationFilterBenchmark::failOnException);
+        nonCachingFilter = new CustomAuthorizationFilter(tokenProvider, new VerifiedTokenCache(0, meterRegistry), revocationList, AuthorizationFilterBenchmark::failOnException);
+        authorizationHeader = "Bearer " + tokenProvider.createAccessToken(new CustomUserDetails(user), UUID.randomUUID());
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public MockHttpServletResponse cachedToken() throws ServletException, IOException {
+        return this.filter(cachingFilter, authorizationHeader);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse uncachedToken() throws ServletException, IOException {
+        return this.filter(nonCachingFilter, authorizationHeader);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymous() throws ServletException, IOException {
+        return this.filter(cachingFilter, null);
+    }
+
+    private MockHttpServletResponse filter(CustomAuthorizationFilter filter, String authorization) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/profile");
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, NO_OP_CHAIN);
+        return response;
+    }
+
+    private static ModelAndView failOnException(HttpServletRequest request, HttpServletResponse response, Object handler, Exception e) {
+        throw new IllegalStateException("Authorization filter failed during benchmark.", e);
+    }
+
+    /**
+     * Descarta as escritas em {@code token_revocations}; o benchmark só precisa do estado em memória.
+     */
+    private static final class NoOpJdbcTemplate extends JdbcTemplate {
+
+        @Override
+        public int update(String sql, Object... args) {
+            return 1;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(AuthorizationFilterBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.joaovitorleal.securecapita.benchmark;
+
+import io.github.joaovitorleal.securecapita.service.EmailTemplateEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de montar o corpo do e-mail de redefinição de senha.
+ * <p>
+ * {@code legacyStringFormat} reproduz o helper anterior do {@code EmailService} ({@code String.format} sobre o text
+ * block a cada mensagem); {@code precompiledTemplate} usa o {@link EmailTemplateEngine}. Os demais cobrem os corpos
+ * de código MFA e de verificação de conta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private static final String USER_FIRST_NAME = "Joao";
+    private static final String VERIFICATION_URL = "http://localhost:8080/user/verify/password/3f1c2a9e-7b4d-4f0e-9a51-2c6d8e0b7a13";
+    private static final String MFA_CODE = "A1B2C3D4";
+
+    private EmailTemplateEngine templateEngine;
+
+    @Setup
+    public void setUp() {
+        templateEngine = new EmailTemplateEngine(new PathMatchingResourcePatternResolver(), "classpath:templates/email/", false);
+    }
+
+    @Benchmark
+    public String legacyStringFormat() {
+        return String.format(
+                """
+                    <html>
+                        <body style="font-family: Arial, sans-serif; color: #333; line-height: 1.6;">
+                            <div style="max-width: 600px; margin: 0 auto; padding: 20px; border: 1px solid #e1e1e1; border-radius: 10px;">
+                                <h1 style="color: #2c3e50;">SecureCapita</h1>
+                                <p>Hello, <strong>%s</strong>,</p>
+                                <p>We received a request to reset your password. Click the button below to choose a new one:</p>
+                                <div style="text-align: center; margin: 30px 0;">
+                                    <a href="%s"
+                                       style="background-color: #3498db; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
+                                       Reset Password
+                                    </a>
+                                </div>
+                                <p>This link will expire in 10 minutes.</p>
+                                <p style="font-size: 12px; color: #7f8c8d;">
+                                    If the button doesn't work, copy and paste this URL into your browser:<br>
+                                    <a href="%s" style="color: #3498db;">%s</a>
+                                </p>
+                                <hr style="border: 0; border-top: 1px solid #eee; margin: 20px 0;">
+                                <p style="font-size: 12px; color: #bdc3c7;">If you did not request this, you can safely ignore this email.</p>
+                            </div>
+                        </body>
+                    </html>
+                """,
+                USER_FIRST_NAME, VERIFICATION_URL, VERIFICATION_URL, VERIFICATION_URL
+        );
+    }
+
+    @Benchmark
+    public String precompiledTemplate() {
+        return templateEngine.render("reset-password", Map.of("userFirstName", USER_FIRST_NAME, "verificationUrl", VERIFICATION_URL));
+    }
+
+    @Benchmark
+    public String mfaCodeTemplate() {
+        return templateEngine.render("mfa-code", Map.of("userFirstName", USER_FIRST_NAME, "mfaCode", MFA_CODE));
+    }
+
+    @Benchmark
+    public String accountVerificationTemplate() {
+        return templateEngine.render("account-verification", Map.of("userFirstName", USER_FIRST_NAME, "verificationUrl", VERIFICATION_URL));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
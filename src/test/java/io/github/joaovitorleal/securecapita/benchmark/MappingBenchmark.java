@@ -0,0 +1,82 @@
+package io.github.joaovitorleal.securecapita.benchmark;
+
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.domain.enums.MfaType;
+import io.github.joaovitorleal.securecapita.dto.UserResponseDto;
+import io.github.joaovitorleal.securecapita.mapper.RoleMapper;
+import io.github.joaovitorleal.securecapita.mapper.UserMapper;
+import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversões executadas em todo login e refresh: {@link UserMapper#toResponseDto(User)} e a construção do
+ * {@link CustomUserDetails}, com as authorities parseadas da permissão ({@code userDetailsParsingAuthorities}) ou
+ * já em cache no {@code RoleCatalog} ({@code userDetailsCachedAuthorities}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private UserMapper userMapper;
+    private User user;
+    private List<GrantedAuthority> authorities;
+
+    @Setup
+    public void setUp() {
+        Role role = new Role();
+        role.setName("ROLE_SYSADMIN");
+        role.setPermission("READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER");
+        user = User.builder()
+                .id(42L)
+                .firstName("Joao")
+                .lastName("Leal")
+                .email("benchmark@securecapita.org")
+                .password("{bcrypt}$2a$14$abcdefghijklmnopqrstuv")
+                .phone("+5511999999999")
+                .title("Engineer")
+                .enabled(true)
+                .nonLocked(true)
+                .mfaType(MfaType.EMAIL)
+                .createdAt(LocalDateTime.now())
+                .role(role)
+                .build();
+        userMapper = new UserMapper(new RoleMapper());
+        authorities = List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(role.getPermission()));
+    }
+
+    @Benchmark
+    public UserResponseDto toResponseDto() {
+        return userMapper.toResponseDto(user);
+    }
+
+    @Benchmark
+    public CustomUserDetails userDetailsParsingAuthorities() {
+        return new CustomUserDetails(user);
+    }
+
+    @Benchmark
+    public CustomUserDetails userDetailsCachedAuthorities() {
+        return new CustomUserDetails(user, authorities);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MappingBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
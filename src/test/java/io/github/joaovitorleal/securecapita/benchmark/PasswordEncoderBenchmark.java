@@ -0,0 +1,62 @@
+package io.github.joaovitorleal.securecapita.benchmark;
+
+import io.github.joaovitorleal.securecapita.security.crypto.CostAwareArgon2PasswordEncoder;
+import io.github.joaovitorleal.securecapita.security.crypto.CostAwareBCryptPasswordEncoder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de {@code matches} (login) por algoritmo e fator de custo, para calibrar
+ * {@code security.password.*} de acordo com o SLO de login no hardware de produção.
+ * <p>
+ * Formato do parâmetro: {@code bcrypt:<strength>} ou {@code argon2:<memória KiB>:<iterações>:<paralelismo>}.
+ * Ex.: {@code java ... PasswordEncoderBenchmark -p encoder=bcrypt:11,bcrypt:13}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordEncoderBenchmark {
+
+    private static final String RAW_PASSWORD = "S3cure!Capita";
+
+    @Param({"bcrypt:10", "bcrypt:12", "bcrypt:14", "argon2:19456:2:1", "argon2:65536:3:1"})
+    private String encoder;
+
+    private PasswordEncoder passwordEncoder;
+    private String encodedPassword;
+
+    @Setup
+    public void setUp() {
+        String[] parameters = encoder.split(":");
+        passwordEncoder = switch (parameters[0]) {
+            case "bcrypt" -> new CostAwareBCryptPasswordEncoder(Integer.parseInt(parameters[1]));
+            case "argon2" -> new CostAwareArgon2PasswordEncoder(
+                    Integer.parseInt(parameters[1]),
+                    Integer.parseInt(parameters[2]),
+                    Integer.parseInt(parameters[3])
+            );
+            default -> throw new IllegalArgumentException("Unknown encoder: " + encoder);
+        };
+        encodedPassword = passwordEncoder.encode(RAW_PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return passwordEncoder.matches(RAW_PASSWORD, encodedPassword);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.joaovitorleal.securecapita.benchmark;
+
+import io.github.joaovitorleal.securecapita.exception.EmailAlreadyExistsException;
+import io.github.joaovitorleal.securecapita.exception.UserNotFoundByEmailException;
+import io.github.joaovitorleal.securecapita.exception.handler.GlobalExceptionHandler;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.ProblemDetail;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de montar o {@link ProblemDetail} no {@link GlobalExceptionHandler} para respostas de erro frequentes:
+ * recurso não encontrado (404) e e-mail já cadastrado (409). Handlers que registram log ficam de fora para não
+ * medir o appender.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProblemDetailBenchmark {
+
+    private GlobalExceptionHandler exceptionHandler;
+    private MockHttpServletRequest request;
+    private UserNotFoundByEmailException notFound;
+    private EmailAlreadyExistsException emailAlreadyExists;
+
+    @Setup
+    public void setUp() {
+        exceptionHandler = new GlobalExceptionHandler();
+        request = new MockHttpServletRequest("GET", "/users/profile");
+        notFound = new UserNotFoundByEmailException("benchmark@securecapita.org");
+        emailAlreadyExists = new EmailAlreadyExistsException("benchmark@securecapita.org");
+    }
+
+    @Benchmark
+    public ProblemDetail resourceNotFound() {
+        return exceptionHandler.handleResourceNotFoundException(notFound, request);
+    }
+
+    @Benchmark
+    public ProblemDetail emailAlreadyExists() {
+        return exceptionHandler.handleEmailAlreadyExistsException(emailAlreadyExists, request);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProblemDetailBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,116 @@
+package io.github.joaovitorleal.securecapita.benchmark;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
+import io.github.joaovitorleal.securecapita.security.provider.TokenProvider;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisição da verificação do access token no {@code CustomAuthorizationFilter}.
+ * <p>
+ * {@code legacyVerifyTwice} reproduz o caminho anterior (HMAC-512 e JWTVerifier recriados e o token verificado
+ * duas vezes, uma para o subject e outra para as authorities); {@code verifyOnce} usa o caminho atual. Os demais
+ * medem a emissão de tokens no login/refresh e as leituras avulsas de subject e authorities.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TokenProviderBenchmark {
+
+    private static final String SECRET = "benchmark-secret-benchmark-secret-benchmark-secret-benchmark-secret";
+    private static final String ISSUER = "JV_LEAL_DEV";
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    private TokenProvider tokenProvider;
+    private MockHttpServletRequest request;
+    private CustomUserDetails userPrincipal;
+    private String accessToken;
+
+    @Setup
+    public void setUp() {
+        Role role = new Role();
+        role.setName("ROLE_SYSADMIN");
+        role.setPermission("READ:USER, READ:CUSTOMER, CREATE:USER, CREATE:CUSTOMER, UPDATE:USER, UPDATE:CUSTOMER, DELETE:USER, DELETE:CUSTOMER");
+        User user = User.builder()
+                .email("benchmark@securecapita.org")
+                .role(role)
+                .build();
+
+        tokenProvider = new TokenProvider(SECRET, new SimpleMeterRegistry());
+        request = new MockHttpServletRequest();
+        userPrincipal = new CustomUserDetails(user);
+        accessToken = tokenProvider.createAccessToken(userPrincipal, SESSION_ID);
+    }
+
+    @Benchmark
+    public String createAccessToken() {
+        return tokenProvider.createAccessToken(userPrincipal, SESSION_ID);
+    }
+
+    @Benchmark
+    public String createRefreshToken() {
+        return tokenProvider.createRefreshToken(userPrincipal, "benchmark-token-id", Instant.now().plus(Duration.ofDays(5)));
+    }
+
+    @Benchmark
+    public String getSubject() {
+        return tokenProvider.getSubject(accessToken, request);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> getAuthorities() {
+        return tokenProvider.getAuthorities(accessToken);
+    }
+
+    @Benchmark
+    public List<GrantedAuthority> legacyVerifyTwice() {
+        String subject = legacyVerifier().verify(accessToken).getSubject();
+        if (subject == null) {
+            return List.of();
+        }
+        return Arrays.stream(legacyVerifier().verify(accessToken).getClaim("authorities").asArray(String.class))
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+    }
+
+    @Benchmark
+    public TokenPrincipal verifyOnce() {
+        return tokenProvider.getPrincipal(accessToken, request);
+    }
+
+    private static JWTVerifier legacyVerifier() {
+        return JWT.require(Algorithm.HMAC512(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .withIssuer(ISSUER)
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TokenProviderBenchmark.class.getSimpleName())
+                .build()
+        ).run();
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.joaovitorleal.securecapita.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por endpoint em histogramas HdrHistogram (microssegundos, 3 dígitos significativos), com contagem de erros
+ * por status HTTP. Status {@code 0} representa falhas de I/O ou timeout, sem resposta.
+ */
+final class LatencyReport {
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private volatile long startedAtNanos = System.nanoTime();
+
+    void record(String endpoint, long latencyNanos, int status, boolean success) {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, key -> new EndpointStats());
+        stats.latencies.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+        if (!success) {
+            stats.errors.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Descarta o que foi medido até aqui (aquecimento) e reinicia a janela de medição.
+     */
+    void reset() {
+        endpoints.clear();
+        startedAtNanos = System.nanoTime();
+    }
+
+    List<EndpointResult> results() {
+        double seconds = Math.max(1e-9, (System.nanoTime() - startedAtNanos) / 1e9);
+        List<EndpointResult> results = new ArrayList<>();
+        new TreeMap<>(endpoints).forEach((endpoint, stats) -> {
+            Histogram latencies = stats.latencies.copy();
+            Map<Integer, Long> errors = new TreeMap<>();
+            stats.errors.forEach((status, count) -> errors.put(status, count.sum()));
+            results.add(new EndpointResult(
+                    endpoint,
+                    latencies.getTotalCount(),
+                    errors.values().stream().mapToLong(Long::longValue).sum(),
+                    errors,
+                    latencies.getTotalCount() / seconds,
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue())
+            ));
+        });
+        return results;
+    }
+
+    void print(PrintStream out, Duration measured) {
+        out.printf("%nLoad test results (%d s measured)%n", measured.toSeconds());
+        out.printf("%-28s %10s %8s %10s %10s %10s %10s %10s%n",
+                "Endpoint", "Requests", "Errors", "Req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (EndpointResult result : this.results()) {
+            out.printf("%-28s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                    result.endpoint(), result.requests(), result.errors(), result.throughput(),
+                    result.p50(), result.p99(), result.p999(), result.max());
+            if (!result.errorsByStatus().isEmpty()) {
+                out.printf("%-28s errors by status: %s%n", "", result.errorsByStatus());
+            }
+        }
+    }
+
+    void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), this.results());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static final class EndpointStats {
+
+        private final Histogram latencies = new ConcurrentHistogram(3);
+        private final ConcurrentMap<Integer, LongAdder> errors = new ConcurrentHashMap<>();
+    }
+
+    record EndpointResult(
+            String endpoint,
+            long requests,
+            long errors,
+            Map<Integer, Long> errorsByStatus,
+            double throughput,
+            double p50,
+            double p99,
+            double p999,
+            double max
+    ) {
+    }
+}
@@ -0,0 +1,212 @@
+package io.github.joaovitorleal.securecapita.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.github.joaovitorleal.securecapita.SecureCapitaApplication;
+import io.github.joaovitorleal.securecapita.repository.IdGeneratorRepository;
+import io.github.joaovitorleal.securecapita.service.StubSmsTransport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Teste de carga autocontido: sobe a aplicação contra um H2 em modo MySQL criado a partir do {@code schema.sql}, um
+ * servidor SMTP GreenMail e o {@link StubSmsTransport}, tudo no mesmo processo, e dispara uma mistura de cadastro,
+ * login, login com MFA por SMS, refresh e consulta de perfil a partir de clientes em virtual threads.
+ * <p>
+ * Os clientes trabalham em laço fechado (a próxima requisição sai quando a anterior termina), então a latência
+ * reportada não inclui o tempo que uma requisição teria esperado para ser enviada com o servidor saturado. Para
+ * reproduzir a saturação, aumente {@code loadtest.clients}; o custo do hash de senha vem de
+ * {@code security.password.bcrypt.strength}.
+ * <p>
+ * Configuração por propriedades de sistema: {@code loadtest.clients}, {@code loadtest.duration},
+ * {@code loadtest.warmup}, {@code loadtest.mix} (pesos, ex.: {@code signup=5,login=15,mfa=10,refresh=20,profile=50}) e
+ * {@code loadtest.result} (arquivo JSON do relatório). Pelo Maven: {@code mvn -Ploadtest verify}.
+ */
+public final class LoadTest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTest.class);
+    private static final String DATABASE_URL = "jdbc:h2:mem:securecapita;MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+            + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1;"
+            + "INIT=CREATE SCHEMA IF NOT EXISTS securecapita\\;SET SCHEMA securecapita";
+    private static final String INSERT_USER_SQL = """
+            INSERT INTO users (id, first_name, last_name, email, password, phone, enabled, using_mfa, mfa_type, created_at)
+            VALUES (?, ?, ?, ?, ?, ?, TRUE, ?, ?, ?)
+            """;
+    private static final String INSERT_USER_ROLE_SQL = "INSERT INTO user_roles (user_id, role_id) SELECT ?, id FROM roles WHERE name = 'ROLE_USER'";
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Settings settings = Settings.fromSystemProperties();
+        createSchema();
+
+        GreenMail greenMail = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        greenMail.start();
+        int exitCode = 0;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SecureCapitaApplication.class).run(
+                "--spring.profiles.active=loadtest",
+                "--spring.datasource.url=" + DATABASE_URL,
+                "--spring.mail.port=" + greenMail.getSmtp().getPort()
+        )) {
+            URI baseUri = URI.create("http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port"));
+            List<Account[]> accounts = seedAccounts(context, settings.clients());
+            LatencyReport report = new LatencyReport();
+            run(settings, baseUri, accounts, report, context.getBean(StubSmsTransport.class), greenMail);
+            report.print(System.out, settings.duration());
+            report.write(settings.result());
+            LOGGER.info("Load test report written to {}", settings.result().toAbsolutePath());
+        } catch (Exception e) {
+            LOGGER.error("Load test failed.", e);
+            exitCode = 1;
+        } finally {
+            greenMail.stop();
+        }
+        System.exit(exitCode);
+    }
+
+    private static void run(
+            Settings settings,
+            URI baseUri,
+            List<Account[]> accounts,
+            LatencyReport report,
+            StubSmsTransport smsTransport,
+            GreenMail greenMail
+    ) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        long warmupEnd = System.nanoTime() + settings.warmup().toNanos();
+        long end = warmupEnd + settings.duration().toNanos();
+        try (HttpClient httpClient = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .connectTimeout(Duration.ofSeconds(10))
+                     .build();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            LOGGER.info("Running {} clients against {}: {} warm-up, {} measured, mix {}.",
+                    settings.clients(), baseUri, settings.warmup(), settings.duration(), settings.mix());
+            for (Account[] pair : accounts) {
+                VirtualUser user = new VirtualUser(httpClient, objectMapper, baseUri, report, smsTransport, pair[0], pair[1]);
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        user.run(settings.nextScenario());
+                    }
+                    return null;
+                });
+            }
+            Thread.sleep(Duration.ofNanos(Math.max(0, warmupEnd - System.nanoTime())));
+            report.reset();
+            greenMail.purgeEmailFromAllMailboxes();
+            LOGGER.info("Warm-up finished; measuring.");
+            clients.shutdown();
+        }
+    }
+
+    /**
+     * Cria o schema a partir do {@code schema.sql} de produção, ignorando as instruções de sessão exclusivas do MySQL.
+     */
+    private static void createSchema() throws Exception {
+        String script = new ClassPathResource("schema.sql").getContentAsString(StandardCharsets.UTF_8)
+                .replaceAll("(?is)ALTER DATABASE[^;]*;", "")
+                .replaceAll("(?i)SET TIME_ZONE[^;]*;", "");
+        try (Connection connection = DriverManager.getConnection(DATABASE_URL, "sa", "")) {
+            ScriptUtils.executeSqlScript(connection, new ByteArrayResource(script.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    /**
+     * Cadastra, já ativadas, uma conta sem MFA e uma com MFA por SMS para cada cliente. Todas compartilham o mesmo
+     * hash de senha, calculado uma única vez.
+     */
+    private static List<Account[]> seedAccounts(ConfigurableApplicationContext context, int clients) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String passwordHash = context.getBean(PasswordEncoder.class).encode(VirtualUser.PASSWORD);
+        long firstId = context.getBean(IdGeneratorRepository.class).allocate("users", clients * 2);
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Account[]> accounts = new ArrayList<>(clients);
+        List<Object[]> userRows = new ArrayList<>(clients * 2);
+        List<Object[]> roleRows = new ArrayList<>(clients * 2);
+        for (int i = 0; i < clients; i++) {
+            long id = firstId + 2L * i;
+            Account account = new Account(id, "client-" + i + "@loadtest.securecapita.org", null);
+            Account mfaAccount = new Account(id + 1, "client-" + i + "-mfa@loadtest.securecapita.org", "+55119%08d".formatted(i));
+            for (Account seeded : List.of(account, mfaAccount)) {
+                boolean usingMfa = seeded.phone() != null;
+                userRows.add(new Object[]{seeded.id(), "Client", String.valueOf(i), seeded.email(), passwordHash,
+                        seeded.phone(), usingMfa, usingMfa ? "SMS" : "EMAIL", createdAt});
+                roleRows.add(new Object[]{seeded.id()});
+            }
+            accounts.add(new Account[]{account, mfaAccount});
+        }
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, userRows);
+        jdbcTemplate.batchUpdate(INSERT_USER_ROLE_SQL, roleRows);
+        LOGGER.info("Seeded {} load-test accounts.", userRows.size());
+        return accounts;
+    }
+
+    record Account(long id, String email, String phone) {
+    }
+
+    enum Scenario {
+        SIGNUP, LOGIN, MFA, REFRESH, PROFILE
+    }
+
+    record Settings(int clients, Duration warmup, Duration duration, Map<Scenario, Integer> mix, Path result) {
+
+        static Settings fromSystemProperties() {
+            Map<Scenario, Integer> mix = new EnumMap<>(Scenario.class);
+            for (String entry : System.getProperty("loadtest.mix", "signup=5,login=15,mfa=10,refresh=20,profile=50").split(",")) {
+                String[] weight = entry.trim().split("=");
+                mix.put(Scenario.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+            }
+            if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+                throw new IllegalArgumentException("loadtest.mix must have at least one positive weight.");
+            }
+            return new Settings(
+                    Integer.getInteger("loadtest.clients", 50),
+                    DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "15s")),
+                    DurationStyle.detectAndParse(System.getProperty("loadtest.duration", "60s")),
+                    mix,
+                    Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"))
+            );
+        }
+
+        Scenario nextScenario() {
+            int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+            int pick = ThreadLocalRandom.current().nextInt(total);
+            for (Map.Entry<Scenario, Integer> weight : mix.entrySet()) {
+                pick -= weight.getValue();
+                if (pick < 0) {
+                    return weight.getKey();
+                }
+            }
+            throw new IllegalStateException("Unreachable.");
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package io.github.joaovitorleal.securecapita.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.joaovitorleal.securecapita.service.StubSmsTransport;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cliente de carga executado em uma virtual thread. Cada instância tem duas contas próprias (uma sem MFA e uma com MFA
+ * por SMS), para que clientes concorrentes não disputem o mesmo código MFA, e mantém os tokens da última autenticação
+ * para as requisições de refresh e perfil.
+ */
+final class VirtualUser {
+
+    static final String PASSWORD = "Load#Test1";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration SMS_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration SMS_POLL_INTERVAL = Duration.ofMillis(20);
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI baseUri;
+    private final LatencyReport report;
+    private final StubSmsTransport smsTransport;
+    private final LoadTest.Account account;
+    private final LoadTest.Account mfaAccount;
+    private String accessToken;
+    private String refreshToken;
+
+    VirtualUser(
+            HttpClient httpClient,
+            ObjectMapper objectMapper,
+            URI baseUri,
+            LatencyReport report,
+            StubSmsTransport smsTransport,
+            LoadTest.Account account,
+            LoadTest.Account mfaAccount
+    ) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.baseUri = baseUri;
+        this.report = report;
+        this.smsTransport = smsTransport;
+        this.account = account;
+        this.mfaAccount = mfaAccount;
+    }
+
+    void run(LoadTest.Scenario scenario) throws InterruptedException {
+        switch (scenario) {
+            case SIGNUP -> this.signup();
+            case LOGIN -> this.login();
+            case MFA -> this.loginWithMfa();
+            case REFRESH -> {
+                if (refreshToken == null) {
+                    this.login();
+                } else {
+                    this.refresh();
+                }
+            }
+            case PROFILE -> {
+                if (accessToken == null) {
+                    this.login();
+                } else {
+                    this.profile();
+                }
+            }
+        }
+    }
+
+    private void signup() throws InterruptedException {
+        String email = "signup-" + UUID.randomUUID() + "@loadtest.securecapita.org";
+        this.send("POST /users", 201, this.post("/users", Map.of(
+                "firstName", "Load",
+                "lastName", "Test",
+                "email", email,
+                "password", PASSWORD
+        )));
+    }
+
+    private void login() throws InterruptedException {
+        this.send("POST /users/login", 200, this.post("/users/login", Map.of("email", account.email(), "password", PASSWORD)))
+                .ifPresent(this::storeTokens);
+    }
+
+    private void loginWithMfa() throws InterruptedException {
+        Instant requestedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        Optional<JsonNode> accepted = this.send("POST /users/login (mfa)", 202,
+                this.post("/users/login", Map.of("email", mfaAccount.email(), "password", PASSWORD)));
+        if (accepted.isEmpty()) {
+            return;
+        }
+        Optional<String> code = this.awaitSmsCode(requestedAt);
+        report.record("sms delivery (mfa code)", System.nanoTime() - startNanos, 0, code.isPresent());
+        if (code.isEmpty()) {
+            return;
+        }
+        this.send("POST /users/verify/code", 200, this.post("/users/verify/code", Map.of("email", mfaAccount.email(), "code", code.get())))
+                .ifPresent(this::storeTokens);
+    }
+
+    private void refresh() throws InterruptedException {
+        HttpRequest request = this.request("/users/refresh/token").header("Authorization", "Bearer " + refreshToken).GET().build();
+        this.send("GET /users/refresh/token", 200, request).ifPresentOrElse(this::storeTokens, () -> refreshToken = null);
+    }
+
+    private void profile() throws InterruptedException {
+        HttpRequest request = this.request("/users/profile").header("Authorization", "Bearer " + accessToken).GET().build();
+        if (this.send("GET /users/profile", 200, request).isEmpty()) {
+            accessToken = null;
+        }
+    }
+
+    /**
+     * Aguarda o código MFA passar pela outbox e chegar ao transporte de SMS stub.
+     */
+    private Optional<String> awaitSmsCode(Instant requestedAt) throws InterruptedException {
+        long deadline = System.nanoTime() + SMS_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            for (StubSmsTransport.SentSms sms : smsTransport.getSentMessages()) {
+                if (sms.sentAt().isBefore(requestedAt)) {
+                    break;
+                }
+                if (sms.to().equals(mfaAccount.phone())) {
+                    return Optional.of(sms.body());
+                }
+            }
+            Thread.sleep(SMS_POLL_INTERVAL);
+        }
+        return Optional.empty();
+    }
+
+    private void storeTokens(JsonNode body) {
+        JsonNode data = body.path("data");
+        accessToken = data.path("access_token").asText(null);
+        refreshToken = data.path("refresh_token").asText(null);
+    }
+
+    /**
+     * Envia a requisição e registra a latência no endpoint informado.
+     *
+     * @return o corpo da resposta, se o status for o esperado.
+     */
+    private Optional<JsonNode> send(String endpoint, int expectedStatus, HttpRequest request) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            boolean success = response.statusCode() == expectedStatus;
+            report.record(endpoint, System.nanoTime() - startNanos, response.statusCode(), success);
+            return success ? Optional.of(objectMapper.readTree(response.body())) : Optional.empty();
+        } catch (IOException e) {
+            report.record(endpoint, System.nanoTime() - startNanos, 0, false);
+            return Optional.empty();
+        }
+    }
+
+    private HttpRequest post(String path, Map<String, String> body) {
+        try {
+            return this.request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("User-Agent", "securecapita-loadtest");
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.joaovitorleal.securecapita.repository;
+
+import io.github.joaovitorleal.securecapita.domain.AccountVerification;
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.domain.enums.MfaType;
+import io.github.joaovitorleal.securecapita.security.crypto.Sha256Hashes;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guarda contra regressões no número de statements do cadastro: com ids de {@code id_generators} (pooled-lo) e
+ * {@code hibernate.jdbc.batch_size}, os INSERTs de usuários, papéis e verificações são agrupados em lotes.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.globally_quoted_identifiers_skip_column_definitions=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class SignupStatementCountTest {
+
+    private static final int BULK_SIZE = 100;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        role = new Role();
+        role.setName("ROLE_USER");
+        role.setPermission("READ:USER, READ:CUSTOMER");
+        entityManager.persist(role);
+        // Aquece o bloco de ids para medir apenas o cadastro.
+        this.signup();
+        entityManager.flush();
+        entityManager.clear();
+        role = entityManager.find(Role.class, role.getId());
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void signupShouldIssueOneStatementPerTable() {
+        this.signup();
+        entityManager.flush();
+
+        // users, user_roles e account_verifications; o bloco de ids já está reservado.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void bulkSignupShouldBatchInserts() {
+        for (int i = 0; i < BULK_SIZE; i++) {
+            this.signup();
+        }
+        entityManager.flush();
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(2L * BULK_SIZE);
+        // Sem lotes seriam 3 statements por cadastro; em lote, cada tabela reaproveita um único statement.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    private void signup() {
+        User user = User.builder()
+                .firstName("Maria")
+                .lastName("Silva")
+                .email(UUID.randomUUID() + "@securecapita.org")
+                .password("{bcrypt}hash")
+                .mfaType(MfaType.EMAIL)
+                .role(role)
+                .build();
+        entityManager.persist(user);
+        String token = UUID.randomUUID().toString();
+        entityManager.persist(new AccountVerification(user, "http://localhost/users/verify/account/" + token,
+                Sha256Hashes.hash(token), LocalDateTime.now().plusDays(7)));
+    }
+}
@@ -0,0 +1,146 @@
+package io.github.joaovitorleal.securecapita.security.filter;
+
+import io.github.joaovitorleal.securecapita.exception.handler.GlobalExceptionHandler;
+import io.github.joaovitorleal.securecapita.security.ratelimit.InMemoryRateLimitStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.support.StaticWebApplicationContext;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimitFilterTest {
+
+    private static final int IP_CAPACITY = 4;
+    private static final int EMAIL_CAPACITY = 2;
+
+    private StubUserController controller;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        StaticWebApplicationContext context = new StaticWebApplicationContext();
+        context.registerSingleton("globalExceptionHandler", GlobalExceptionHandler.class);
+        context.refresh();
+        ExceptionHandlerExceptionResolver resolver = new ExceptionHandlerExceptionResolver();
+        resolver.setApplicationContext(context);
+        resolver.getMessageConverters().add(new MappingJackson2HttpMessageConverter());
+        resolver.afterPropertiesSet();
+
+        RateLimitFilter filter = new RateLimitFilter(true, IP_CAPACITY, Duration.ofMinutes(1), EMAIL_CAPACITY,
+                Duration.ofMinutes(5), new InMemoryRateLimitStore(1_000), resolver, new SimpleMeterRegistry());
+        controller = new StubUserController();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filter).build();
+    }
+
+    @Test
+    void shouldRejectRepeatedEmailBeforeReachingTheController() throws Exception {
+        for (int i = 0; i < EMAIL_CAPACITY; i++) {
+            this.login("10.0.0." + i, "User@SecureCapita.org").andExpect(status().isOk());
+        }
+
+        this.login("10.0.0.99", "user@securecapita.org")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+        assertThat(controller.calls).hasValue(EMAIL_CAPACITY);
+    }
+
+    @Test
+    void shouldRejectRepeatedIpAcrossEmails() throws Exception {
+        for (int i = 0; i < IP_CAPACITY; i++) {
+            this.login("10.0.0.1", "user" + i + "@securecapita.org").andExpect(status().isOk());
+        }
+
+        this.login("10.0.0.1", "other@securecapita.org").andExpect(status().isTooManyRequests());
+        this.login("10.0.0.2", "other@securecapita.org").andExpect(status().isOk());
+        assertThat(controller.calls).hasValue(IP_CAPACITY + 1);
+    }
+
+    @Test
+    void shouldLimitPasswordResetsByEmailInThePath() throws Exception {
+        for (int i = 0; i < EMAIL_CAPACITY; i++) {
+            mockMvc.perform(post("/users/password-resets/User@SecureCapita.org")).andExpect(status().isOk());
+        }
+
+        mockMvc.perform(post("/users/password-resets/user@securecapita.org")).andExpect(status().isTooManyRequests());
+        assertThat(controller.calls).hasValue(EMAIL_CAPACITY);
+    }
+
+    @Test
+    void shouldHandTheInspectedBodyToTheController() throws Exception {
+        this.login("10.0.0.1", "user@securecapita.org")
+                .andExpect(status().isOk())
+                .andExpect(content().string("user@securecapita.org"));
+    }
+
+    @Test
+    void shouldRejectBodiesPaddedPastTheInspectedSize() throws Exception {
+        String padded = "{\"padding\":\"" + "x".repeat(RateLimitFilter.MAX_INSPECTED_BODY_BYTES)
+                + "\",\"email\":\"user@securecapita.org\",\"password\":\"Secret#123\"}";
+
+        for (int i = 0; i <= EMAIL_CAPACITY; i++) {
+            this.login("10.0.0." + i, padded.getBytes(StandardCharsets.UTF_8)).andExpect(status().isPayloadTooLarge());
+        }
+        assertThat(controller.calls).hasValue(0);
+    }
+
+    @Test
+    void shouldRejectBodiesWithoutASingleEmail() throws Exception {
+        this.login("10.0.0.1", "{\"password\":\"Secret#123\"}".getBytes(StandardCharsets.UTF_8))
+                .andExpect(status().isBadRequest());
+        this.login("10.0.0.1", "{\"email\":\"junk@example.org\",\"email\":\"user@securecapita.org\"}".getBytes(StandardCharsets.UTF_8))
+                .andExpect(status().isBadRequest());
+        assertThat(controller.calls).hasValue(0);
+    }
+
+    private ResultActions login(String remoteAddress, String email) throws Exception {
+        return this.login(remoteAddress, ("{\"email\":\"" + email + "\",\"password\":\"Secret#123\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    private ResultActions login(String remoteAddress, byte[] body) throws Exception {
+        return mockMvc.perform(post("/users/login")
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddress);
+                    return request;
+                })
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body));
+    }
+
+    @RestController
+    static class StubUserController {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @PostMapping("/users/login")
+        String login(@RequestBody Map<String, String> credentials) {
+            calls.incrementAndGet();
+            return credentials.get("email");
+        }
+
+        @PostMapping("/users/password-resets/{email}")
+        String resetPassword(@PathVariable String email) {
+            calls.incrementAndGet();
+            return email;
+        }
+    }
+}
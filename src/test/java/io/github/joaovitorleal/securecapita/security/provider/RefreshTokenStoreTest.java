@@ -0,0 +1,132 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.exception.JwtAuthenticationInvalidException;
+import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RefreshTokenStoreTest {
+
+    private static final String SECRET = "refresh-token-test-secret-refresh-token-test-secret-refresh-token";
+
+    private JdbcTemplate jdbcTemplate;
+    private TokenProvider tokenProvider;
+    private TokenRevocationList tokenRevocationList;
+    private RefreshTokenStore store;
+    private CustomUserDetails userPrincipal;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("""
+                CREATE TABLE refresh_tokens
+                (
+                    token_hash BINARY(32)   NOT NULL PRIMARY KEY,
+                    family_id  BINARY(16)   NOT NULL,
+                    user_email VARCHAR(100) NOT NULL,
+                    expires_at DATETIME(3)  NOT NULL,
+                    used       BOOLEAN      NOT NULL DEFAULT FALSE
+                )
+                """);
+        jdbcTemplate.execute("""
+                CREATE TABLE token_revocations
+                (
+                    id             BIGINT       NOT NULL AUTO_INCREMENT PRIMARY KEY,
+                    revocation_key VARCHAR(191) NOT NULL,
+                    revoked_at     DATETIME(3)  NOT NULL,
+                    expires_at     DATETIME(3)  NOT NULL,
+                    created_at     DATETIME(3)  NOT NULL
+                )
+                """);
+        tokenProvider = new TokenProvider(SECRET, new SimpleMeterRegistry());
+        tokenRevocationList = new TokenRevocationList(jdbcTemplate, 1_000, 0.01, Duration.ofSeconds(10));
+        store = this.newStore();
+        userPrincipal = new CustomUserDetails(User.builder().email("user@securecapita.org").build());
+    }
+
+    @Test
+    void shouldRotateWithinTheSameFamily() {
+        UUID familyId = UUID.randomUUID();
+        String token = store.issue(userPrincipal, familyId);
+
+        RefreshTokenStore.Session session = store.consume(token, new MockHttpServletRequest());
+
+        assertThat(session.email()).isEqualTo("user@securecapita.org");
+        assertThat(session.familyId()).isEqualTo(familyId);
+    }
+
+    @Test
+    void shouldRevokeTheWholeFamilyWhenAConsumedTokenIsReused() {
+        UUID familyId = UUID.randomUUID();
+        String first = store.issue(userPrincipal, familyId);
+        store.consume(first, new MockHttpServletRequest());
+        String second = store.issue(userPrincipal, familyId);
+        String otherSession = store.issue(userPrincipal, UUID.randomUUID());
+
+        assertThatThrownBy(() -> store.consume(first, new MockHttpServletRequest()))
+                .isInstanceOf(JwtAuthenticationInvalidException.class)
+                .hasMessage("Your session has been revoked. Please log in again.");
+
+        assertThatThrownBy(() -> store.consume(second, new MockHttpServletRequest()))
+                .isInstanceOf(JwtAuthenticationInvalidException.class)
+                .hasMessage("Refresh token missing or invalid.");
+        assertThat(store.consume(otherSession, new MockHttpServletRequest()).email()).isEqualTo("user@securecapita.org");
+    }
+
+    @Test
+    void shouldRevokeTheSessionAccessTokensWhenAConsumedTokenIsReused() throws InterruptedException {
+        UUID familyId = UUID.randomUUID();
+        UUID otherFamilyId = UUID.randomUUID();
+        String refreshToken = store.issue(userPrincipal, familyId);
+        String accessToken = tokenProvider.createAccessToken(userPrincipal, familyId);
+        String otherAccessToken = tokenProvider.createAccessToken(userPrincipal, otherFamilyId);
+        store.consume(refreshToken, new MockHttpServletRequest());
+        Thread.sleep(2);
+
+        assertThatThrownBy(() -> store.consume(refreshToken, new MockHttpServletRequest()))
+                .isInstanceOf(JwtAuthenticationInvalidException.class);
+
+        assertThat(tokenRevocationList.isRevoked(tokenProvider.getPrincipal(accessToken, new MockHttpServletRequest()))).isTrue();
+        assertThat(tokenRevocationList.isRevoked(tokenProvider.getPrincipal(otherAccessToken, new MockHttpServletRequest()))).isFalse();
+
+        TokenRevocationList otherInstance = new TokenRevocationList(jdbcTemplate, 1_000, 0.01, Duration.ofSeconds(10));
+        otherInstance.poll();
+        assertThat(otherInstance.isRevoked(tokenProvider.getPrincipal(accessToken, new MockHttpServletRequest()))).isTrue();
+    }
+
+    @Test
+    void shouldRejectTokenWhoseSubjectDoesNotMatchTheRegisteredUser() {
+        String token = store.issue(userPrincipal, UUID.randomUUID());
+        jdbcTemplate.update("UPDATE refresh_tokens SET user_email = ?", "other@securecapita.org");
+
+        assertThatThrownBy(() -> this.newStore().consume(token, new MockHttpServletRequest()))
+                .isInstanceOf(JwtAuthenticationInvalidException.class)
+                .hasMessage("Refresh token missing or invalid.");
+    }
+
+    @Test
+    void shouldRejectUnknownTokens() {
+        String token = tokenProvider.createRefreshToken(userPrincipal, "unknown-token-id", Instant.now().plus(Duration.ofDays(1)));
+
+        assertThatThrownBy(() -> store.consume(token, new MockHttpServletRequest()))
+                .isInstanceOf(JwtAuthenticationInvalidException.class)
+                .hasMessage("Refresh token missing or invalid.");
+    }
+
+    private RefreshTokenStore newStore() {
+        return new RefreshTokenStore(jdbcTemplate, tokenProvider, tokenRevocationList, Duration.ofDays(5), 1_000, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import io.github.joaovitorleal.securecapita.domain.User;
+import io.github.joaovitorleal.securecapita.security.model.CustomUserDetails;
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenRevocationListTest {
+
+    private TokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        revocationList = new TokenRevocationList(new NoOpJdbcTemplate(), 1_000, 0.01, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void shouldRevokeTokensIssuedBeforeSubjectRevocation() {
+        Instant issuedAt = Instant.now().minusSeconds(60);
+
+        revocationList.revokeSubject("User@SecureCapita.org");
+
+        assertThat(revocationList.isRevoked(principal("user@securecapita.org", null, issuedAt))).isTrue();
+        assertThat(revocationList.isRevoked(principal("user@securecapita.org", null, Instant.now().plusSeconds(1)))).isFalse();
+        assertThat(revocationList.isRevoked(principal("other@securecapita.org", null, issuedAt))).isFalse();
+    }
+
+    @Test
+    void shouldRevokeOnlyTheLoggedOutSession() {
+        UUID loggedOut = UUID.randomUUID();
+        Instant issuedAt = Instant.now().minusSeconds(60);
+
+        revocationList.revokeSession(loggedOut);
+
+        assertThat(revocationList.isRevoked(principal("user@securecapita.org", loggedOut.toString(), issuedAt))).isTrue();
+        assertThat(revocationList.isRevoked(principal("user@securecapita.org", UUID.randomUUID().toString(), issuedAt))).isFalse();
+    }
+
+    @Test
+    void shouldKeepActiveRevocationsAcrossRotations() {
+        Instant issuedAt = Instant.now().minusSeconds(60);
+        revocationList.revokeSubject("user@securecapita.org");
+
+        revocationList.rotate();
+        revocationList.rotate();
+
+        assertThat(revocationList.isRevoked(principal("user@securecapita.org", null, issuedAt))).isTrue();
+    }
+
+    @Test
+    void shouldNotRevokeTokenIssuedAfterTheRevocationWithinTheSameSecond() throws InterruptedException {
+        TokenProvider tokenProvider = new TokenProvider("revocation-test-secret-revocation-test-secret-revocation-test", new SimpleMeterRegistry());
+        CustomUserDetails userPrincipal = new CustomUserDetails(User.builder().email("user@securecapita.org").build());
+        UUID sessionId = UUID.randomUUID();
+        String issuedBefore = tokenProvider.createAccessToken(userPrincipal, sessionId);
+        Thread.sleep(2);
+
+        revocationList.revokeSession(sessionId);
+        Thread.sleep(2);
+        String issuedAfter = tokenProvider.createAccessToken(userPrincipal, sessionId);
+
+        assertThat(revocationList.isRevoked(tokenProvider.getPrincipal(issuedBefore, new MockHttpServletRequest()))).isTrue();
+        assertThat(revocationList.isRevoked(tokenProvider.getPrincipal(issuedAfter, new MockHttpServletRequest()))).isFalse();
+    }
+
+    private static TokenPrincipal principal(String subject, String sessionId, Instant issuedAt) {
+        return new TokenPrincipal(subject, List.of(), issuedAt.plusSeconds(1_800), UUID.randomUUID().toString(), sessionId, issuedAt);
+    }
+
+    private static final class NoOpJdbcTemplate extends JdbcTemplate {
+
+        @Override
+        public int update(String sql, Object... args) {
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.joaovitorleal.securecapita.security.provider;
+
+import io.github.joaovitorleal.securecapita.security.model.TokenPrincipal;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+    private VerifiedTokenCache cache;
+    private AtomicInteger verifications;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache(100, new SimpleMeterRegistry());
+        verifications = new AtomicInteger();
+    }
+
+    @Test
+    void shouldVerifyOnlyOnceForRepeatedToken() {
+        String token = "header.payload.signature";
+
+        cache.get(token, t -> this.verify(Instant.now().plusSeconds(60)));
+        cache.get(token, t -> this.verify(Instant.now().plusSeconds(60)));
+
+        assertThat(verifications).hasValue(1);
+    }
+
+    @Test
+    void shouldNotReuseSignatureForDifferentContent() {
+        cache.get("header.payload.signature", t -> this.verify(Instant.now().plusSeconds(60)));
+        cache.get("header.tampered.signature", t -> this.verify(Instant.now().plusSeconds(60)));
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    void shouldNotServeExpiredToken() {
+        String token = "header.payload.signature";
+
+        cache.get(token, t -> this.verify(Instant.now().minusSeconds(1)));
+        cache.get(token, t -> this.verify(Instant.now().minusSeconds(1)));
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    private TokenPrincipal verify(Instant expiresAt) {
+        verifications.incrementAndGet();
+        return new TokenPrincipal("user@securecapita.org", List.of(), expiresAt, null, null, null);
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.joaovitorleal.securecapita.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryRateLimitStoreTest {
+
+    private AtomicLong nanos;
+    private InMemoryRateLimitStore store;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        store = new InMemoryRateLimitStore(100, nanos::get);
+    }
+
+    @Test
+    void shouldAllowBurstUpToCapacity() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(acquire("user@securecapita.org")).isZero();
+        }
+
+        assertThat(acquire("user@securecapita.org")).isEqualTo(Duration.ofMinutes(1).toNanos());
+    }
+
+    @Test
+    void shouldRefillOneTokenPerInterval() {
+        for (int i = 0; i < 5; i++) {
+            acquire("user@securecapita.org");
+        }
+
+        nanos.addAndGet(Duration.ofSeconds(59).toNanos());
+        assertThat(acquire("user@securecapita.org")).isEqualTo(Duration.ofSeconds(1).toNanos());
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(acquire("user@securecapita.org")).isZero();
+        assertThat(acquire("user@securecapita.org")).isPositive();
+    }
+
+    @Test
+    void shouldNotConsumeTokensWhenRejected() {
+        for (int i = 0; i < 5; i++) {
+            acquire("user@securecapita.org");
+        }
+        for (int i = 0; i < 100; i++) {
+            acquire("user@securecapita.org");
+        }
+
+        nanos.addAndGet(Duration.ofMinutes(1).toNanos());
+        assertThat(acquire("user@securecapita.org")).isZero();
+    }
+
+    @Test
+    void shouldKeepKeysIndependent() {
+        for (int i = 0; i < 5; i++) {
+            acquire("attacker@securecapita.org");
+        }
+
+        assertThat(acquire("attacker@securecapita.org")).isPositive();
+        assertThat(acquire("user@securecapita.org")).isZero();
+    }
+
+    @Test
+    void shouldRestoreFullCapacityOnReset() {
+        for (int i = 0; i < 5; i++) {
+            acquire("user@securecapita.org");
+        }
+
+        store.reset("user@securecapita.org");
+        for (int i = 0; i < 5; i++) {
+            assertThat(acquire("user@securecapita.org")).isZero();
+        }
+    }
+
+    private long acquire(String key) {
+        return store.tryAcquire(key, 5, Duration.ofMinutes(5));
+    }
+}
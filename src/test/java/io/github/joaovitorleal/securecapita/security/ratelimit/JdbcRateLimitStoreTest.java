@@ -0,0 +1,107 @@
+package io.github.joaovitorleal.securecapita.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdbcRateLimitStoreTest {
+
+    private static final Duration PERIOD = Duration.ofHours(1);
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new NamedParameterJdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.getJdbcTemplate().execute("""
+                CREATE TABLE rate_limit_counters
+                (
+                    bucket_key   BINARY(32) NOT NULL,
+                    window_start BIGINT     NOT NULL,
+                    hits         INT        NOT NULL,
+                    expires_at   BIGINT     NOT NULL,
+                    PRIMARY KEY (bucket_key, window_start)
+                )
+                """);
+    }
+
+    @Test
+    void shouldShareHitsBetweenInstancesAfterSync() {
+        JdbcRateLimitStore first = this.store(100);
+        JdbcRateLimitStore second = this.store(100);
+
+        assertThat(first.tryAcquire("login|email|user@securecapita.org", 3, PERIOD)).isZero();
+        assertThat(first.tryAcquire("login|email|user@securecapita.org", 3, PERIOD)).isZero();
+        first.sync();
+        assertThat(second.tryAcquire("login|email|user@securecapita.org", 3, PERIOD)).isZero();
+        second.sync();
+
+        assertThat(this.storedHits()).isEqualTo(3);
+        assertThat(second.tryAcquire("login|email|user@securecapita.org", 3, PERIOD)).isPositive();
+        first.sync();
+        assertThat(first.tryAcquire("login|email|user@securecapita.org", 3, PERIOD)).isPositive();
+    }
+
+    @Test
+    void shouldKeepHitsLocalAndResendThemWhenSyncFails() {
+        JdbcRateLimitStore store = this.store(100);
+        store.tryAcquire("login|ip|10.0.0.1", 3, PERIOD);
+        store.tryAcquire("login|ip|10.0.0.1", 3, PERIOD);
+
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE rate_limit_counters RENAME TO rate_limit_counters_offline");
+        store.sync();
+        assertThat(store.tryAcquire("login|ip|10.0.0.1", 3, PERIOD)).isZero();
+        assertThat(store.tryAcquire("login|ip|10.0.0.1", 3, PERIOD)).isPositive();
+
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE rate_limit_counters_offline RENAME TO rate_limit_counters");
+        store.sync();
+        assertThat(this.storedHits()).isEqualTo(3);
+        assertThat(store.tryAcquire("login|ip|10.0.0.1", 3, PERIOD)).isPositive();
+    }
+
+    @Test
+    void shouldStoreKeysLongerThanTheColumnAsFixedSizeHashes() {
+        JdbcRateLimitStore store = this.store(100);
+        String longKey = "login|email|" + "a".repeat(4_000) + "@securecapita.org";
+
+        store.tryAcquire(longKey, 3, PERIOD);
+        store.tryAcquire("login|email|user@securecapita.org", 3, PERIOD);
+        store.sync();
+
+        assertThat(this.storedHits()).isEqualTo(2);
+        store.reset(longKey);
+        assertThat(this.storedHits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountNewKeysInTheDatabaseOnceTheLimitIsReached() {
+        JdbcRateLimitStore store = this.store(2);
+        store.tryAcquire("login|ip|10.0.0.1", 3, PERIOD);
+        store.tryAcquire("login|ip|10.0.0.2", 3, PERIOD);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(store.tryAcquire("login|ip|10.0.0.3", 3, PERIOD)).isZero();
+        }
+        assertThat(store.tryAcquire("login|ip|10.0.0.3", 3, PERIOD)).isPositive();
+        assertThat(this.storedHits()).isEqualTo(3);
+
+        store.sync();
+        assertThat(this.storedHits()).isEqualTo(5);
+    }
+
+    private JdbcRateLimitStore store(long maximumKeys) {
+        return new JdbcRateLimitStore(jdbcTemplate, maximumKeys);
+    }
+
+    private int storedHits() {
+        Integer hits = jdbcTemplate.getJdbcTemplate().queryForObject("SELECT COALESCE(SUM(hits), 0) FROM rate_limit_counters", Integer.class);
+        return hits == null ? 0 : hits;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplateEngineTest {
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine(
+            new PathMatchingResourcePatternResolver(), "classpath:templates/email/", false);
+
+    @Test
+    void rendersEveryOccurrenceAndEscapesValues() {
+        String html = engine.render("reset-password", Map.of(
+                "userFirstName", "<script>alert('x')</script>",
+                "verificationUrl", "https://securecapita.org/reset?key=a&b"
+        ));
+
+        assertThat(html)
+                .contains("<strong>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt;</strong>")
+                .doesNotContain("{{")
+                .doesNotContain("<script>");
+        assertThat(html.split("https://securecapita.org/reset\\?key=a&amp;b", -1)).hasSize(4);
+    }
+
+    @Test
+    void failsOnMissingVariable() {
+        assertThatThrownBy(() -> engine.render("mfa-code", Map.of("userFirstName", "Ana")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("mfaCode");
+    }
+
+    @Test
+    void compilesLiteralOnlyTemplate() {
+        StringBuilder out = new StringBuilder();
+        EmailTemplate.compile("plain", "<p>no variables</p>").renderTo(out, Map.of());
+
+        assertThat(out).hasToString("<p>no variables</p>");
+    }
+}
@@ -0,0 +1,171 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.joaovitorleal.securecapita.domain.Role;
+import io.github.joaovitorleal.securecapita.domain.enums.DataFormat;
+import io.github.joaovitorleal.securecapita.dto.UserImportResultDto;
+import io.github.joaovitorleal.securecapita.exception.InvalidImportFileException;
+import io.github.joaovitorleal.securecapita.repository.IdGeneratorRepository;
+import io.github.joaovitorleal.securecapita.repository.UserJpaRepository;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserImportServiceTest {
+
+    private static final String PASSWORD = "Secret#123";
+
+    private JdbcTemplate jdbcTemplate;
+    private UserJpaRepository userRepository;
+    private UserImportService importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        userRepository = mock(UserJpaRepository.class);
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of());
+
+        IdGeneratorRepository idGeneratorRepository = mock(IdGeneratorRepository.class);
+        when(idGeneratorRepository.allocate(anyString(), anyInt())).thenReturn(1L);
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        Role role = new Role();
+        role.setId(1L);
+        role.setName("ROLE_USER");
+        RoleCatalog roleCatalog = mock(RoleCatalog.class);
+        when(roleCatalog.findByName("ROLE_USER")).thenReturn(Optional.of(role));
+
+        importService = new UserImportService(
+                jdbcTemplate,
+                idGeneratorRepository,
+                transactionTemplate,
+                userRepository,
+                roleCatalog,
+                mock(NotificationOutboxService.class),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(),
+                new BCryptPasswordEncoder(4),
+                2
+        );
+        ReflectionTestUtils.setField(importService, "batchSize", 500);
+        ReflectionTestUtils.setField(importService, "accountVerificationTtl", Duration.ofDays(7));
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void shouldParseQuotedCsvFieldsInAnyColumnOrder() throws IOException {
+        String csv = """
+                email,password,lastName,firstName
+                maria@securecapita.org,%s,"Silva, Jr.","Ma""ria"
+
+                joao@securecapita.org,%s,Souza,João
+                """.formatted(PASSWORD, PASSWORD);
+
+        UserImportResultDto result = this.importCsv(csv);
+
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rejected()).isZero();
+        List<Object[]> users = this.insertedUsers();
+        assertThat(users).hasSize(2);
+        assertThat(users.getFirst()[1]).isEqualTo("Ma\"ria");
+        assertThat(users.getFirst()[2]).isEqualTo("Silva, Jr.");
+        assertThat(users.getFirst()[3]).isEqualTo("maria@securecapita.org");
+        assertThat((String) users.getFirst()[4]).startsWith("$2a$04$");
+    }
+
+    @Test
+    void shouldRejectMalformedAndInvalidLinesWithoutStopping() throws IOException {
+        String csv = """
+                firstName,lastName,email,password
+                Maria,Silva,maria@securecapita.org,%s
+                Ana,"Costa,ana@securecapita.org,%s
+                Pedro,Lima,pedro@securecapita.org
+                Bia,Reis,not-an-email,%s
+                """.formatted(PASSWORD, PASSWORD, PASSWORD);
+
+        UserImportResultDto result = this.importCsv(csv);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.rejected()).isEqualTo(3);
+        assertThat(result.errors()).containsExactly(
+                "line 3: malformed record",
+                "line 4: malformed record",
+                "line 5: Invalid email format."
+        );
+    }
+
+    @Test
+    void shouldSkipEmailsRepeatedInTheChunkOrAlreadyRegistered() throws IOException {
+        when(userRepository.findExistingEmails(anyCollection())).thenReturn(Set.of("Existing@SecureCapita.org"));
+        String csv = """
+                firstName,lastName,email,password
+                Maria,Silva,maria@securecapita.org,%s
+                Maria,Duplicada,MARIA@securecapita.org,%s
+                Carla,Antiga,existing@securecapita.org,%s
+                """.formatted(PASSWORD, PASSWORD, PASSWORD);
+
+        UserImportResultDto result = this.importCsv(csv);
+
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.skipped()).isEqualTo(2);
+        List<Object[]> users = this.insertedUsers();
+        assertThat(users).hasSize(1);
+        assertThat(users.getFirst()[2]).isEqualTo("Silva");
+    }
+
+    @Test
+    void shouldRequireAllCsvColumns() {
+        assertThatThrownBy(() -> this.importCsv("firstName,lastName,email\nMaria,Silva,maria@securecapita.org\n"))
+                .isInstanceOf(InvalidImportFileException.class);
+    }
+
+    private UserImportResultDto importCsv(String csv) throws IOException {
+        return importService.importUsers(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), DataFormat.CSV, "http://localhost");
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> insertedUsers() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(startsWith("INSERT INTO users"), rows.capture());
+        return new ArrayList<>(rows.getValue());
+    }
+}
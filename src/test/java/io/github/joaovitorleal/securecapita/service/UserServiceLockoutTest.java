@@ -0,0 +1,98 @@
+package io.github.joaovitorleal.securecapita.service;
+
+import io.github.joaovitorleal.securecapita.mapper.UserMapper;
+import io.github.joaovitorleal.securecapita.repository.AccountVerificationJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.MfaVerificationJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.ResetPasswordVerificationJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.UserJpaRepository;
+import io.github.joaovitorleal.securecapita.repository.UserQueryRepository;
+import io.github.joaovitorleal.securecapita.security.provider.RefreshTokenStore;
+import io.github.joaovitorleal.securecapita.security.provider.TokenRevocationList;
+import io.github.joaovitorleal.securecapita.security.ratelimit.JdbcRateLimitStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceLockoutTest {
+
+    private static final int MAX_FAILURES = 3;
+
+    private JdbcRateLimitStore rateLimitStore;
+    private UserJpaRepository userRepository;
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.getJdbcTemplate().execute("""
+                CREATE TABLE rate_limit_counters
+                (
+                    bucket_key   BINARY(32) NOT NULL,
+                    window_start BIGINT     NOT NULL,
+                    hits         INT        NOT NULL,
+                    expires_at   BIGINT     NOT NULL,
+                    PRIMARY KEY (bucket_key, window_start)
+                )
+                """);
+        rateLimitStore = new JdbcRateLimitStore(jdbcTemplate, 2);
+        userRepository = mock(UserJpaRepository.class);
+        when(userRepository.lockByEmail(anyString())).thenReturn(1);
+
+        userService = new UserService(
+                userRepository,
+                mock(RoleCatalog.class),
+                mock(AccountVerificationJpaRepository.class),
+                mock(MfaVerificationJpaRepository.class),
+                mock(ResetPasswordVerificationJpaRepository.class),
+                mock(UserMapper.class),
+                mock(PasswordEncoder.class),
+                mock(NotificationOutboxService.class),
+                mock(UserSnapshotCache.class),
+                mock(AuditService.class),
+                mock(UserQueryRepository.class),
+                rateLimitStore,
+                mock(RefreshTokenStore.class),
+                mock(TokenRevocationList.class)
+        );
+        ReflectionTestUtils.setField(userService, "lockoutEnabled", true);
+        ReflectionTestUtils.setField(userService, "lockoutMaxFailures", MAX_FAILURES);
+        ReflectionTestUtils.setField(userService, "lockoutWindow", Duration.ofMinutes(15));
+    }
+
+    @Test
+    void shouldNotLockAccountOnASingleFailureWhenTrackedKeysAreFull() {
+        rateLimitStore.tryAcquire("/users/login|ip|203.0.113.1", 20, Duration.ofMinutes(1));
+        rateLimitStore.tryAcquire("/users/login|email|junk@example.org", 5, Duration.ofMinutes(5));
+
+        userService.recordLoginFailure("User@SecureCapita.org");
+
+        verify(userRepository, never()).lockByEmail(anyString());
+    }
+
+    @Test
+    void shouldLockAccountOnlyAfterMoreThanMaxFailuresWhenTrackedKeysAreFull() {
+        rateLimitStore.tryAcquire("/users/login|ip|203.0.113.1", 20, Duration.ofMinutes(1));
+        rateLimitStore.tryAcquire("/users/login|email|junk@example.org", 5, Duration.ofMinutes(5));
+
+        for (int i = 0; i < MAX_FAILURES; i++) {
+            userService.recordLoginFailure("user@securecapita.org");
+        }
+        verify(userRepository, never()).lockByEmail(anyString());
+
+        userService.recordLoginFailure("user@securecapita.org");
+        verify(userRepository).lockByEmail("user@securecapita.org");
+    }
+}